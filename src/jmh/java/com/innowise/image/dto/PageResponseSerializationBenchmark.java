@@ -0,0 +1,78 @@
+package com.innowise.image.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.image.entity.ImageVariant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of an image listing page as the controllers return it, at the default
+ * page size, the cursor page cap and a large offset page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PageResponseSerializationBenchmark {
+
+    @Param({"20", "100", "500"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PageResponseDto<ImageDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<ImageDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            String key = UUID.randomUUID() + "-photo-" + i + ".jpg";
+            Map<String, String> variantUrls = new LinkedHashMap<>();
+            for (ImageVariant variant : ImageVariant.values()) {
+                variantUrls.put(variant.id(), "http://localhost:4566/images/" + variant.keyFor(key));
+            }
+            content.add(ImageDto.builder()
+                    .id(UUID.randomUUID())
+                    .url("http://localhost:4566/images/" + key)
+                    .description("Photo number " + i + " from the weekend trip")
+                    .uploadedAt(Instant.now().minusSeconds(i * 60L))
+                    .userId(UUID.randomUUID())
+                    .authorName("user" + i)
+                    .variantUrls(variantUrls)
+                    .build());
+        }
+        page = PageResponseDto.<ImageDto>builder()
+                .content(content)
+                .page(0)
+                .size(pageSize)
+                .totalElements(pageSize * 10L)
+                .totalPages(10)
+                .last(false)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,78 @@
+package com.innowise.image.kafka;
+
+import com.innowise.common.dto.event.CommentEventDto;
+import com.innowise.common.dto.event.LikeEventDto;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost and wire size of like/comment events, JSON versus binary-v1.
+ * The {@code wireBytes} and {@code events} secondary results are totals over the measurement,
+ * so their ratio is the encoded size of one event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventSerializationBenchmark {
+
+    private static final String TOPIC = "image-events";
+
+    @Param({"like", "comment"})
+    public String event;
+
+    @Param({"json", "binary-v1"})
+    public String format;
+
+    private Serializer<Object> serializer;
+    private Object payload;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long wireBytes;
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+            events = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        serializer = "json".equals(format) ? new JsonSerializer<>() : new BinaryEventSerializer();
+        payload = "like".equals(event)
+                ? new LikeEventDto(UUID.randomUUID(), UUID.randomUUID(), true)
+                : new CommentEventDto(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), true,
+                        "Great shot, the light on the water is beautiful!");
+    }
+
+    @Benchmark
+    public byte[] serialize(Size size) {
+        byte[] bytes = serializer.serialize(TOPIC, new RecordHeaders(), payload);
+        size.wireBytes += bytes.length;
+        size.events++;
+        return bytes;
+    }
+}
@@ -0,0 +1,83 @@
+package com.innowise.image.mapper;
+
+import com.innowise.image.dto.CommentDto;
+import com.innowise.image.dto.ImageDto;
+import com.innowise.image.entity.CommentEntity;
+import com.innowise.image.entity.ImageEntity;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-object cost of entity-to-DTO mapping: the explicit mappers against the reflective
+ * ModelMapper they replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityMappingBenchmark {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ImageMapper imageMapper = new ImageMapper();
+    private final CommentMapper commentMapper = new CommentMapper();
+
+    private ImageEntity image;
+    private CommentEntity comment;
+
+    @Setup
+    public void setUp() {
+        image = ImageEntity.builder()
+                .id(UUID.randomUUID())
+                .url("http://localhost:4566/images/" + UUID.randomUUID() + "-photo.jpg")
+                .description("Sunset over the bay")
+                .uploadedAt(Instant.now())
+                .userId(UUID.randomUUID())
+                .likesCount(42)
+                .build();
+        comment = CommentEntity.builder()
+                .id(UUID.randomUUID())
+                .imageId(image.getId())
+                .userId(UUID.randomUUID())
+                .authorName("alice")
+                .content("Great shot!")
+                .createdAt(Instant.now())
+                .build();
+        modelMapper.map(image, ImageDto.class);
+        modelMapper.map(comment, CommentDto.class);
+    }
+
+    @Benchmark
+    public ImageDto imageExplicit() {
+        return imageMapper.toDto(image);
+    }
+
+    @Benchmark
+    public ImageDto imageModelMapper() {
+        return modelMapper.map(image, ImageDto.class);
+    }
+
+    @Benchmark
+    public CommentDto commentExplicit() {
+        return commentMapper.toDto(comment);
+    }
+
+    @Benchmark
+    public CommentDto commentModelMapper() {
+        return modelMapper.map(comment, CommentDto.class);
+    }
+}
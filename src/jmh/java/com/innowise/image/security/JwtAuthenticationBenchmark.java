@@ -0,0 +1,141 @@
+package com.innowise.image.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.common.security.JwtUtil;
+import com.innowise.image.config.JwtCacheProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling on the request path: a full HS256 parse/verify (what every JwtUtil call costs),
+ * the verified-token cache, the whole filter, and the path authorization checks it runs.
+ * JwtUtil is replaced by an equivalent jjwt-backed implementation signed with the default
+ * {@code jwt.secret}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "k7Hj9mQx2pLw8nRv3sTz5yUc1bNv6mKq4fXr7tYw9eZa2sDf8gHj3kLp0oIu";
+
+    private UUID userId;
+    private String token;
+    private String restrictedPath;
+    private SigningJwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        userId = UUID.randomUUID();
+        token = Jwts.builder()
+                .subject("alice")
+                .claim("userId", userId.toString())
+                .issuedAt(new Date())
+                .expiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .signWith(key)
+                .compact();
+        restrictedPath = "/api/user/" + userId + "/images";
+
+        jwtUtil = new SigningJwtUtil(key);
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtil, new ObjectMapper(),
+                new JwtCacheProperties(10_000, Duration.ofMinutes(15)), new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(verifiedTokenCache);
+
+        request = new MockHttpServletRequest("GET", restrictedPath);
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public Claims parseAndVerify() {
+        return jwtUtil.parse(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyUncached() {
+        return jwtUtil.validateToken(token)
+                ? new JwtPrincipal(jwtUtil.extractUserId(token), jwtUtil.extractUsername(token))
+                : null;
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyCached() {
+        return verifiedTokenCache.verify(token);
+    }
+
+    @Benchmark
+    public int filterRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(request, response, (req, res) -> { });
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public boolean authorizeRestrictedPath() {
+        return JwtAuthenticationFilter.isRestrictedImagePath(restrictedPath)
+                && JwtAuthenticationFilter.isUserIdMatch(restrictedPath, userId);
+    }
+
+    @Benchmark
+    public boolean authorizeOtherPath() {
+        return JwtAuthenticationFilter.isRestrictedImagePath("/api/images/" + userId + "/comments");
+    }
+
+    static final class SigningJwtUtil extends JwtUtil {
+
+        private final SecretKey key;
+
+        SigningJwtUtil(SecretKey key) {
+            this.key = key;
+        }
+
+        Claims parse(String token) {
+            return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+        }
+
+        @Override
+        public String extractUsername(String token) {
+            return parse(token).getSubject();
+        }
+
+        @Override
+        public UUID extractUserId(String token) {
+            return UUID.fromString(parse(token).get("userId", String.class));
+        }
+
+        @Override
+        public boolean validateToken(String token) {
+            return parse(token).getExpiration().after(new Date());
+        }
+    }
+}
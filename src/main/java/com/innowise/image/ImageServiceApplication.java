@@ -1,6 +1,14 @@
 package com.innowise.image;
 
+import com.innowise.image.config.HotFeedProperties;
+import com.innowise.image.config.HttpCacheProperties;
+import com.innowise.image.config.ImageContentCacheProperties;
+import com.innowise.image.config.ImageMetadataCacheProperties;
+import com.innowise.image.config.ImageVariantProperties;
+import com.innowise.image.config.JwtCacheProperties;
 import com.innowise.image.config.S3Properties;
+import com.innowise.image.config.S3UploadProperties;
+import com.innowise.image.config.UsernameCacheProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -9,7 +17,17 @@ import org.springframework.context.annotation.ComponentScan;
 
 @EnableFeignClients
 @SpringBootApplication
-@EnableConfigurationProperties(S3Properties.class)
+@EnableConfigurationProperties({
+        S3Properties.class,
+        S3UploadProperties.class,
+        UsernameCacheProperties.class,
+        ImageVariantProperties.class,
+        ImageContentCacheProperties.class,
+        JwtCacheProperties.class,
+        HttpCacheProperties.class,
+        ImageMetadataCacheProperties.class,
+        HotFeedProperties.class
+})
 @ComponentScan(basePackages = {
         "com.innowise.image",
         "com.innowise.image.config",
@@ -0,0 +1,56 @@
+package com.innowise.image.actuator;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.innowise.image.config.ImageMetadataCacheProperties;
+import com.innowise.image.service.impl.ImageMetadataCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@code /actuator/imagecache}: effectiveness of the image metadata cache on this node.
+ */
+@Component
+@Endpoint(id = "imagecache")
+@RequiredArgsConstructor
+public class ImageCacheEndpoint {
+
+    private final ImageMetadataCache imageMetadataCache;
+    private final ImageMetadataCacheProperties properties;
+
+    @ReadOperation
+    public ImageCacheReport report() {
+        CacheStats stats = imageMetadataCache.stats();
+        List<HotKey> hottest = imageMetadataCache.hottest(properties.hottestKeys()).keySet().stream()
+                .map(HotKey::new)
+                .toList();
+        return new ImageCacheReport(
+                stats.hitRate(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.evictionWeight(),
+                imageMetadataCache.estimatedSize(),
+                imageMetadataCache.weightedSize(),
+                imageMetadataCache.maximumWeight(),
+                hottest);
+    }
+
+    public record ImageCacheReport(
+            double hitRatio,
+            long hits,
+            long misses,
+            long evictions,
+            long evictedBytes,
+            long entries,
+            long estimatedBytes,
+            long maxBytes,
+            List<HotKey> hottest
+    ) {}
+
+    public record HotKey(UUID imageId) {}
+}
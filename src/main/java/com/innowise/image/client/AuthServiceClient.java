@@ -3,7 +3,11 @@ package com.innowise.image.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 @FeignClient(name = "auth-service", url = "${auth.service.url:http://localhost:8080}")
@@ -11,4 +15,7 @@ public interface AuthServiceClient {
 
     @GetMapping("/api/auth/users/{id}/username")
     String getUsernameById(@PathVariable("id") UUID userId);
-}
\ No newline at end of file
+
+    @PostMapping("/api/auth/users/usernames")
+    Map<UUID, String> getUsernamesByIds(@RequestBody Collection<UUID> userIds);
+}
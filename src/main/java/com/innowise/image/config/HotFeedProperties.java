@@ -0,0 +1,11 @@
+package com.innowise.image.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param capacity number of newest images kept in memory to serve the first pages of the feed
+ */
+@ConfigurationProperties(prefix = "images.hot-feed")
+public record HotFeedProperties(
+        int capacity
+) {}
@@ -0,0 +1,32 @@
+package com.innowise.image.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * {@code Cache-Control} policies of the conditional metadata endpoints.
+ */
+@ConfigurationProperties(prefix = "http.cache")
+public record HttpCacheProperties(
+        Policy image,
+        Policy likes,
+        Policy comments
+) {
+
+    /**
+     * @param maxAge how long a response may be reused without revalidation; zero means
+     *               {@code no-cache}, i.e. always revalidate with the ETag
+     * @param shared whether shared caches (CDN, proxies) may store the response
+     */
+    public record Policy(Duration maxAge, boolean shared) {
+
+        public CacheControl toCacheControl() {
+            CacheControl cacheControl = maxAge == null || maxAge.isZero() || maxAge.isNegative()
+                    ? CacheControl.noCache()
+                    : CacheControl.maxAge(maxAge);
+            return shared ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+        }
+    }
+}
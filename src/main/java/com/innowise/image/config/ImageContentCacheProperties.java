@@ -0,0 +1,14 @@
+package com.innowise.image.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "images.content-cache")
+public record ImageContentCacheProperties(
+        Path directory,
+        DataSize maxSize,
+        Duration deleteGrace
+) {}
@@ -0,0 +1,13 @@
+package com.innowise.image.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "images.metadata-cache")
+public record ImageMetadataCacheProperties(
+        DataSize maxSize,
+        Duration ttl,
+        int hottestKeys
+) {}
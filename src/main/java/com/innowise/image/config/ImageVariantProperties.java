@@ -0,0 +1,11 @@
+package com.innowise.image.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "images.variants")
+public record ImageVariantProperties(
+        int workerThreads,
+        int queueCapacity,
+        long maxSourcePixels,
+        float jpegQuality
+) {}
@@ -0,0 +1,11 @@
+package com.innowise.image.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "jwt.cache")
+public record JwtCacheProperties(
+        long maxSize,
+        Duration maxTtl
+) {}
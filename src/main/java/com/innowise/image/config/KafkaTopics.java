@@ -0,0 +1,11 @@
+package com.innowise.image.config;
+
+public final class KafkaTopics {
+
+    public static final String LIKE_EVENTS = "image-like-events";
+    public static final String COMMENT_EVENTS = "image-comment-events";
+    public static final String IMAGE_CHANGES = "image-change-events";
+
+    private KafkaTopics() {
+    }
+}
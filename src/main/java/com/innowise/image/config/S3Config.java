@@ -6,8 +6,10 @@ import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import java.net.URI;
 
@@ -36,4 +38,47 @@ public class S3Config {
                 .serviceConfiguration(s3config)
                 .build();
     }
+
+    @Bean
+    public S3AsyncClient s3AsyncClient(S3Properties properties) {
+        return S3AsyncClient.builder()
+                .endpointOverride(URI.create(properties.endpoint()))
+                .region(Region.of(properties.region()))
+                .credentialsProvider(
+                        StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create(
+                                        properties.accessKey(),
+                                        properties.secretKey()
+                                )
+                        )
+                )
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .checksumValidationEnabled(false)
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public S3Presigner s3Presigner(S3Properties properties) {
+        String endpoint = properties.externalUrl() != null && !properties.externalUrl().isBlank()
+                ? properties.externalUrl()
+                : properties.endpoint();
+
+        return S3Presigner.builder()
+                .endpointOverride(URI.create(endpoint))
+                .region(Region.of(properties.region()))
+                .credentialsProvider(
+                        StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create(
+                                        properties.accessKey(),
+                                        properties.secretKey()
+                                )
+                        )
+                )
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .build())
+                .build();
+    }
 }
\ No newline at end of file
@@ -8,5 +8,6 @@ public record S3Properties(
         String region,
         String bucket,
         String accessKey,
-        String secretKey
+        String secretKey,
+        String externalUrl
 ) {}
@@ -0,0 +1,16 @@
+package com.innowise.image.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "s3.upload")
+public record S3UploadProperties(
+        DataSize partSize,
+        int maxBufferedParts,
+        int partUploadThreads,
+        Duration presignTtl,
+        int maxConcurrentAsyncUploads,
+        DataSize maxStreamSize
+) {}
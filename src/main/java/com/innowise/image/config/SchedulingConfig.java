@@ -0,0 +1,13 @@
+package com.innowise.image.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the scheduled jobs on Boot's task scheduler, sized by {@code spring.task.scheduling.pool.size}
+ * to give every job its own thread.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
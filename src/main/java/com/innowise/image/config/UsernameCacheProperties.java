@@ -0,0 +1,13 @@
+package com.innowise.image.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "auth.username-cache")
+public record UsernameCacheProperties(
+        long maxSize,
+        Duration ttl,
+        Duration negativeTtl,
+        int loadThreads
+) {}
@@ -0,0 +1,46 @@
+package com.innowise.image.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Supplier;
+
+/**
+ * Answers conditional GETs from a cheap validator before the response body is built. The body
+ * supplier only runs when the client's copy is stale; {@link WebRequest#checkNotModified} writes
+ * the ETag and Last-Modified headers in both cases.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> forVersion(WebRequest request, Instant version, CacheControl cacheControl,
+                                            Supplier<T> body) {
+        String eTag = weakETag(Long.toString(ChronoUnit.MICROS.between(Instant.EPOCH, version)));
+        if (request.checkNotModified(eTag, version.toEpochMilli())) {
+            return notModified(cacheControl);
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body.get());
+    }
+
+    static <T> ResponseEntity<T> forValue(WebRequest request, String value, CacheControl cacheControl,
+                                          Supplier<T> body) {
+        if (request.checkNotModified(weakETag(value))) {
+            return notModified(cacheControl);
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body.get());
+    }
+
+    private static <T> ResponseEntity<T> notModified(CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+    }
+
+    private static String weakETag(String value) {
+        return "W/\"" + value + "\"";
+    }
+}
@@ -1,15 +1,27 @@
 package com.innowise.image.controller;
 
-import com.innowise.common.security.JwtUtil;
+import com.innowise.image.config.HttpCacheProperties;
 import com.innowise.image.dto.CommentDto;
+import com.innowise.image.dto.CommentsCountDto;
+import com.innowise.image.dto.CursorPageResponseDto;
+import com.innowise.image.dto.ImageCardDto;
 import com.innowise.image.dto.ImageDto;
+import com.innowise.image.dto.ImageLikesDto;
 import com.innowise.image.dto.LikesCountDto;
 import com.innowise.image.dto.PageResponseDto;
+import com.innowise.image.dto.PresignedUploadDto;
+import com.innowise.image.dto.PresignedUploadRequestDto;
 import com.innowise.image.dto.UploadResponseDto;
-import com.innowise.image.exception.UnauthorizedException;
+import com.innowise.image.exception.BadRequestException;
+import com.innowise.image.security.JwtPrincipal;
 import com.innowise.image.service.CommentService;
+import com.innowise.image.service.FeedService;
+import com.innowise.image.service.ImageContentService;
 import com.innowise.image.service.ImageService;
 import com.innowise.image.service.LikeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -22,44 +34,116 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.net.URI;
+import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class ImageController {
 
-    private final JwtUtil jwtUtil;
+    private static final String DEFAULT_CURSOR_PAGE_SIZE = "20";
+    private static final int MAX_BATCH_IDS = 100;
+
     private final LikeService likeService;
     private final ImageService imageService;
     private final CommentService commentService;
+    private final ImageContentService imageContentService;
+    private final FeedService feedService;
+    private final HttpCacheProperties httpCacheProperties;
 
     @PostMapping(value = "/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<UploadResponseDto> uploadImage(
-            @RequestHeader(name = "Authorization", required = false) String authHeader,
+            JwtPrincipal principal,
             @RequestParam("file") MultipartFile file,
             @RequestParam(name = "description", required = false) String description
     ) throws IOException {
 
-        UUID userId = extractUserIdFromAuthHeader(authHeader);
-        UploadResponseDto dto = imageService.uploadImage(file, userId, description);
+        UploadResponseDto dto = imageService.uploadImage(file, principal.userId(), description);
+        return ResponseEntity
+                .created(URI.create("/api/images/" + dto.getId()))
+                .body(dto);
+    }
+
+    @PostMapping(value = "/images/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<UploadResponseDto>> uploadImageAsync(
+            JwtPrincipal principal,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(name = "description", required = false) String description
+    ) throws IOException {
+
+        return imageService.uploadImageAsync(file, principal.userId(), description)
+                .thenApply(dto -> ResponseEntity
+                        .created(URI.create("/api/images/" + dto.getId()))
+                        .body(dto));
+    }
+
+    @PostMapping(value = "/images/stream", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<UploadResponseDto> uploadImageStream(
+            JwtPrincipal principal,
+            @RequestParam("filename") String filename,
+            @RequestParam(name = "description", required = false) String description,
+            HttpServletRequest request
+    ) throws IOException {
+
+        UploadResponseDto dto = imageService.uploadImageStream(
+                request.getInputStream(), filename, request.getContentType(), principal.userId(), description);
         return ResponseEntity
                 .created(URI.create("/api/images/" + dto.getId()))
                 .body(dto);
     }
 
+    @PostMapping("/images/presigned")
+    public ResponseEntity<PresignedUploadDto> createPresignedUpload(
+            JwtPrincipal principal,
+            @Valid @RequestBody PresignedUploadRequestDto request
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(imageService.createPresignedUpload(request, principal.userId()));
+    }
+
+    @PostMapping("/images/{id}/confirm")
+    public ResponseEntity<UploadResponseDto> confirmUpload(
+            JwtPrincipal principal,
+            @PathVariable("id") UUID imageId
+    ) {
+        return ResponseEntity.ok(imageService.confirmUpload(imageId, principal.userId()));
+    }
+
     @GetMapping("/images/{id}")
-    public ResponseEntity<ImageDto> getImage(@PathVariable("id") UUID id) {
-        ImageDto dto = imageService.getImage(id);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<ImageDto> getImage(@PathVariable("id") UUID id, WebRequest request) {
+        return ConditionalResponses.forVersion(request, imageService.getImageVersion(id),
+                httpCacheProperties.image().toCacheControl(), () -> imageService.getImage(id));
+    }
+
+    @DeleteMapping("/images/{id}")
+    public ResponseEntity<Void> deleteImage(
+            JwtPrincipal principal,
+            @PathVariable("id") UUID imageId
+    ) {
+        imageService.deleteImage(imageId, principal.userId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/images/{id}/content")
+    public void getImageContent(
+            @PathVariable("id") UUID id,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        ImageContentWriter.write(request, response, imageContentService.getContent(id));
     }
 
     @GetMapping("/user/{id}/images")
@@ -77,6 +161,23 @@ public class ImageController {
         return ResponseEntity.ok(resp);
     }
 
+    @GetMapping(value = "/user/{id}/images", params = "cursor")
+    public ResponseEntity<CursorPageResponseDto<ImageDto>> getUserImagesByCursor(
+            @PathVariable("id") UUID id,
+            @RequestParam("cursor") String cursor,
+            @RequestParam(name = "size", defaultValue = DEFAULT_CURSOR_PAGE_SIZE) int size
+    ) {
+        return ResponseEntity.ok(imageService.getUserImages(id, cursor, size));
+    }
+
+    @GetMapping(value = "/images", params = "cursor")
+    public ResponseEntity<CursorPageResponseDto<ImageDto>> getAllImagesByCursor(
+            @RequestParam("cursor") String cursor,
+            @RequestParam(name = "size", defaultValue = DEFAULT_CURSOR_PAGE_SIZE) int size
+    ) {
+        return ResponseEntity.ok(imageService.getAllImages(cursor, size));
+    }
+
     @GetMapping("/images")
     public ResponseEntity<PageResponseDto<ImageDto>> getAllImages(Pageable pageable) {
         Page<ImageDto> page = imageService.getAllImages(pageable);
@@ -93,66 +194,120 @@ public class ImageController {
         return ResponseEntity.ok(resp);
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPageResponseDto<ImageCardDto>> getFeed(
+            JwtPrincipal principal,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = DEFAULT_CURSOR_PAGE_SIZE) int size
+    ) {
+        return ResponseEntity.ok(feedService.getFeed(principal.userId(), cursor, size));
+    }
+
     @PostMapping("/images/{id}/likes")
     public ResponseEntity<Void> toggleLike(
-            @RequestHeader(name = "Authorization", required = false) String authHeader,
+            JwtPrincipal principal,
             @PathVariable("id") UUID imageId
     ) {
-        UUID userId = extractUserIdFromAuthHeader(authHeader);
-        likeService.toggleLike(imageId, userId);
+        likeService.toggleLike(imageId, principal.userId());
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/images/{id}/likes/count")
-    public ResponseEntity<LikesCountDto> countLikes(@PathVariable("id") UUID imageId) {
-        return ResponseEntity.ok(new LikesCountDto(likeService.countLikes(imageId)));
+    public ResponseEntity<LikesCountDto> countLikes(@PathVariable("id") UUID imageId, WebRequest request) {
+        int likesCount = likeService.countLikes(imageId);
+        return ConditionalResponses.forValue(request, Integer.toString(likesCount),
+                httpCacheProperties.likes().toCacheControl(), () -> new LikesCountDto(likesCount));
+    }
+
+    /**
+     * Like counts and whether the caller liked each image, for up to {@value #MAX_BATCH_IDS}
+     * images, keyed by image id; unknown ids are left out.
+     */
+    @GetMapping("/images/likes")
+    public ResponseEntity<Map<UUID, ImageLikesDto>> getLikesBatch(
+            JwtPrincipal principal,
+            @RequestParam("ids") List<UUID> imageIds
+    ) {
+        return ResponseEntity.ok(likeService.getLikes(batchOf(imageIds), principal.userId()));
     }
 
     @PostMapping("/images/{id}/comments")
     public ResponseEntity<CommentDto> addComment(
-            @RequestHeader(name = "Authorization", required = false) String authHeader,
+            JwtPrincipal principal,
             @PathVariable("id") UUID imageId,
             @RequestBody CommentDto request
     ) {
-        UUID userId = extractUserIdFromAuthHeader(authHeader);
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(commentService.addComment(imageId, userId, request));
+                .body(commentService.addComment(imageId, principal.userId(), principal.username(), request));
     }
 
     @GetMapping("/images/{id}/comments")
-    public ResponseEntity<List<CommentDto>> listComments(@PathVariable("id") UUID imageId) {
-        return ResponseEntity.ok(commentService.listComments(imageId));
+    public ResponseEntity<List<CommentDto>> listComments(@PathVariable("id") UUID imageId, WebRequest request) {
+        Optional<Instant> version = commentService.getCommentsVersion(imageId);
+        if (version.isEmpty()) {
+            return ResponseEntity.ok(commentService.listComments(imageId));
+        }
+        return ConditionalResponses.forVersion(request, version.get(),
+                httpCacheProperties.comments().toCacheControl(), () -> commentService.listComments(imageId));
+    }
+
+    @GetMapping(value = "/images/{id}/comments", params = "cursor")
+    public ResponseEntity<CursorPageResponseDto<CommentDto>> listCommentsByCursor(
+            @PathVariable("id") UUID imageId,
+            @RequestParam("cursor") String cursor,
+            @RequestParam(name = "size", defaultValue = DEFAULT_CURSOR_PAGE_SIZE) int size,
+            WebRequest request
+    ) {
+        Optional<Instant> version = commentService.getCommentsVersion(imageId);
+        if (version.isEmpty()) {
+            return ResponseEntity.ok(commentService.listComments(imageId, cursor, size));
+        }
+        return ConditionalResponses.forVersion(request, version.get(),
+                httpCacheProperties.comments().toCacheControl(),
+                () -> commentService.listComments(imageId, cursor, size));
+    }
+
+    @GetMapping("/images/{id}/comments/count")
+    public ResponseEntity<CommentsCountDto> countComments(@PathVariable("id") UUID imageId, WebRequest request) {
+        int commentsCount = commentService.countComments(imageId);
+        return ConditionalResponses.forValue(request, Integer.toString(commentsCount),
+                httpCacheProperties.comments().toCacheControl(), () -> new CommentsCountDto(commentsCount));
+    }
+
+    /**
+     * Comment counts for up to {@value #MAX_BATCH_IDS} images, keyed by image id; unknown ids
+     * are left out.
+     */
+    @GetMapping("/images/comments/count")
+    public ResponseEntity<Map<UUID, Integer>> countCommentsBatch(@RequestParam("ids") List<UUID> imageIds) {
+        return ResponseEntity.ok(commentService.countComments(batchOf(imageIds)));
     }
 
     @PutMapping("/images/{id}/comments/{commentId}")
     public ResponseEntity<CommentDto> updateComment(
-            @RequestHeader(name = "Authorization", required = false) String authHeader,
+            JwtPrincipal principal,
             @PathVariable("id") UUID imageId,
             @PathVariable("commentId") UUID commentId,
             @RequestBody CommentDto request
     ) {
-        UUID userId = extractUserIdFromAuthHeader(authHeader);
-        return ResponseEntity.ok(commentService.updateComment(imageId, commentId, userId, request));
+        return ResponseEntity.ok(commentService.updateComment(imageId, commentId, principal.userId(), principal.username(), request));
     }
 
     @DeleteMapping("/images/{id}/comments/{commentId}")
     public ResponseEntity<Void> deleteComment(
-            @RequestHeader(name = "Authorization", required = false) String authHeader,
+            JwtPrincipal principal,
             @PathVariable("id") UUID imageId,
             @PathVariable("commentId") UUID commentId
     ) {
-        UUID userId = extractUserIdFromAuthHeader(authHeader);
-        commentService.deleteComment(imageId, commentId, userId);
+        commentService.deleteComment(imageId, commentId, principal.userId());
         return ResponseEntity.noContent().build();
     }
 
-    private UUID extractUserIdFromAuthHeader(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new UnauthorizedException("Missing or invalid Authorization header");
+    private static List<UUID> batchOf(List<UUID> imageIds) {
+        List<UUID> distinct = List.copyOf(new LinkedHashSet<>(imageIds));
+        if (distinct.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " image ids are allowed per request");
         }
-        String token = authHeader.substring(7);
-        UUID userId = jwtUtil.extractUserId(token);
-        if (userId == null) throw new UnauthorizedException("Cannot extract user id from token");
-        return userId;
+        return distinct;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.innowise.image.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class CommentsCountDto {
+    private int commentsCount;
+}
@@ -0,0 +1,29 @@
+package com.innowise.image.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageCardDto {
+    private UUID id;
+    private String url;
+    private String description;
+    private Instant uploadedAt;
+    private UUID userId;
+    private String authorName;
+    private Map<String, String> variantUrls;
+    private long likesCount;
+    private long commentsCount;
+    private boolean likedByMe;
+}
@@ -0,0 +1,17 @@
+package com.innowise.image.dto;
+
+import java.util.UUID;
+
+/**
+ * Broadcast to every replica when an image becomes visible or its cached state goes stale.
+ *
+ * @param origin id of the node that made the change, so it can skip its own echo
+ */
+public record ImageChangeEvent(UUID imageId, Type type, UUID origin) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
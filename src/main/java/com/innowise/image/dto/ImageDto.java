@@ -7,6 +7,7 @@ import lombok.Setter;
 import lombok.Builder;
 
 import java.time.Instant;
+import java.util.Map;
 import java.util.UUID;
 
 @Getter
@@ -21,4 +22,5 @@ public class ImageDto {
     private Instant uploadedAt;
     private UUID userId;
     private String authorName;
+    private Map<String, String> variantUrls;
 }
@@ -0,0 +1,13 @@
+package com.innowise.image.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class ImageLikesDto {
+    private int likesCount;
+    private boolean likedByMe;
+}
@@ -0,0 +1,21 @@
+package com.innowise.image.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PresignedUploadRequestDto {
+    @NotBlank
+    private String filename;
+    @NotBlank
+    private String contentType;
+    private String description;
+}
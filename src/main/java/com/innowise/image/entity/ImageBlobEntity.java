@@ -0,0 +1,31 @@
+package com.innowise.image.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "image_blobs", schema = "gallery")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageBlobEntity {
+
+    @Id
+    @Column(name = "sha256", length = 64, nullable = false, updatable = false)
+    private String sha256;
+
+    @Column(name = "s3_key", length = 1024, nullable = false)
+    private String s3Key;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+}
@@ -2,6 +2,8 @@ package com.innowise.image.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
@@ -10,6 +12,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.Builder;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.time.Instant;
@@ -41,4 +44,47 @@ public class ImageEntity {
 
     @Column(name = "user_id", nullable = false)
     private UUID userId;
+
+    /**
+     * Maintained only by {@link com.innowise.image.service.impl.LikeCountAggregator} and the
+     * reconciler; starts from the column default, and entity flushes never write it back.
+     */
+    @Column(name = "likes_count", insertable = false, updatable = false)
+    private int likesCount;
+
+    @Column(name = "s3_key", length = 1024)
+    private String s3Key;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    @Builder.Default
+    private ImageStatus status = ImageStatus.READY;
+
+    @Column(name = "variants_ready", nullable = false)
+    private boolean variantsReady;
+
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
+    /**
+     * Version of the image metadata, used as its ETag and Last-Modified.
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Version of the image's comment listing; only ever bumped by
+     * {@link com.innowise.image.repository.ImageRepository#touchComments} and
+     * {@link com.innowise.image.repository.ImageRepository#adjustCommentsCount}.
+     */
+    @Column(name = "comments_updated_at", insertable = false, updatable = false)
+    private Instant commentsUpdatedAt;
+
+    /**
+     * Maintained alongside the comments by
+     * {@link com.innowise.image.repository.ImageRepository#adjustCommentsCount}.
+     */
+    @Column(name = "comments_count", insertable = false, updatable = false)
+    private int commentsCount;
 }
@@ -0,0 +1,6 @@
+package com.innowise.image.entity;
+
+public enum ImageStatus {
+    PENDING,
+    READY
+}
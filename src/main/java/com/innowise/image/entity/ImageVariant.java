@@ -0,0 +1,30 @@
+package com.innowise.image.entity;
+
+import java.util.Locale;
+
+public enum ImageVariant {
+    THUMB(200),
+    MEDIUM(800),
+    LARGE(1600);
+
+    private final int maxEdge;
+
+    ImageVariant(int maxEdge) {
+        this.maxEdge = maxEdge;
+    }
+
+    public int maxEdge() {
+        return maxEdge;
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Variants are stored next to the original object, suffixed with the variant id.
+     */
+    public String keyFor(String originalKey) {
+        return originalKey + "-" + id() + ".jpg";
+    }
+}
@@ -30,6 +30,11 @@ public class GlobalExceptionHandler {
         return build(ex, HttpStatus.BAD_REQUEST, request.getRequestURI());
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponseDto> handleBadRequest(BadRequestException ex, HttpServletRequest req) {
+        return build(ex, HttpStatus.BAD_REQUEST, req.getRequestURI());
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ErrorResponseDto> handleNotFound(NotFoundException ex, HttpServletRequest req) {
         return build(ex, HttpStatus.NOT_FOUND, req.getRequestURI());
@@ -45,6 +50,16 @@ public class GlobalExceptionHandler {
         return build(ex, HttpStatus.CONFLICT, req.getRequestURI());
     }
 
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<ErrorResponseDto> handlePayloadTooLarge(PayloadTooLargeException ex, HttpServletRequest req) {
+        return build(ex, HttpStatus.PAYLOAD_TOO_LARGE, req.getRequestURI());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponseDto> handleServiceUnavailable(ServiceUnavailableException ex, HttpServletRequest req) {
+        return build(ex, HttpStatus.SERVICE_UNAVAILABLE, req.getRequestURI());
+    }
+
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<ErrorResponseDto> handleUnauthorized(UnauthorizedException ex, HttpServletRequest req) {
         return build(ex, HttpStatus.UNAUTHORIZED, req.getRequestURI());
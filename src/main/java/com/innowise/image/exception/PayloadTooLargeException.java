@@ -0,0 +1,5 @@
+package com.innowise.image.exception;
+
+public class PayloadTooLargeException extends RuntimeException {
+    public PayloadTooLargeException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package com.innowise.image.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) { super(message); }
+}
@@ -0,0 +1,67 @@
+package com.innowise.image.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Lets a scheduled task run on at most one replica at a time, using a PostgreSQL session-level
+ * advisory lock named after the task. The lock lives on a connection held for the duration of
+ * the task, so a replica that dies mid-run releases it together with its connection.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterJobLock {
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_lock(?)";
+    private static final String UNLOCK = "SELECT pg_advisory_unlock(?)";
+
+    private final DataSource dataSource;
+
+    /**
+     * Runs {@code task} unless another replica is already running the task of the same name.
+     *
+     * @return whether the task ran
+     */
+    public boolean runExclusively(String name, Runnable task) {
+        long key = keyOf(name);
+        try (Connection connection = dataSource.getConnection()) {
+            if (!call(connection, TRY_LOCK, key)) {
+                log.debug("Skipping {}: running on another instance", name);
+                return false;
+            }
+            try {
+                task.run();
+            } finally {
+                call(connection, UNLOCK, key);
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Failed to coordinate job " + name, e);
+        }
+    }
+
+    static long keyOf(String name) {
+        return UUID.nameUUIDFromBytes(("image-service:" + name).getBytes(StandardCharsets.UTF_8))
+                .getMostSignificantBits();
+    }
+
+    private static boolean call(Connection connection, String sql, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
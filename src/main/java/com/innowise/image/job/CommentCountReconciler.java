@@ -0,0 +1,68 @@
+package com.innowise.image.job;
+
+import com.innowise.image.repository.ImageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Repairs drift between {@code images.comments_count} and the {@code comments} table, on one
+ * replica at a time. Images are walked in id order in bounded chunks, each chunk corrected in
+ * its own short transaction that first locks the chunk's idle rows and only then recounts, so a
+ * concurrent comment write can never be overwritten with a stale count. Rows busy at that
+ * moment are left for the next run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentCountReconciler {
+
+    private static final String JOB_NAME = "comment-count-reconciler";
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final ImageRepository imageRepository;
+    private final ClusterJobLock clusterJobLock;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${comments.reconcile.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${comments.reconcile.interval-ms:3600000}",
+            initialDelayString = "${comments.reconcile.initial-delay-ms:900000}")
+    public void reconcile() {
+        clusterJobLock.runExclusively(JOB_NAME, this::reconcileAll);
+    }
+
+    private void reconcileAll() {
+        UUID after = MIN_ID;
+        int repaired = 0;
+        List<UUID> ids;
+        do {
+            ids = imageRepository.findIdsAfter(after, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+            repaired += reconcileChunk(ids);
+        } while (ids.size() == batchSize);
+
+        if (repaired > 0) {
+            log.warn("Repaired comments_count drift on {} images", repaired);
+        }
+    }
+
+    int reconcileChunk(List<UUID> ids) {
+        return Objects.requireNonNullElse(transactionTemplate.execute(status -> {
+            List<UUID> locked = imageRepository.lockIdleImages(ids);
+            return locked.isEmpty() ? 0 : imageRepository.reconcileCommentsCounts(locked);
+        }), 0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.innowise.image.job;
+
+import com.innowise.image.repository.CountDrift;
+import com.innowise.image.repository.ImageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repairs drift between {@code images.likes_count} and the {@code likes} table, on one replica
+ * at a time. Images are walked in id order in bounded chunks to find counters that disagree
+ * with their rows.
+ * <p>
+ * A disagreement alone is not drift: any replica may still buffer deltas for likes that are
+ * already committed. Found images are therefore only corrected after a quiet period longer
+ * than the counter flush interval, and only if neither their counter nor their like count
+ * changed in between, i.e. the image was idle across the whole cluster.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeCountReconciler {
+
+    private static final String JOB_NAME = "like-count-reconciler";
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final ImageRepository imageRepository;
+    private final ClusterJobLock clusterJobLock;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${likes.reconcile.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${likes.reconcile.quiet-period:30s}")
+    private Duration quietPeriod;
+
+    @Scheduled(fixedDelayString = "${likes.reconcile.interval-ms:3600000}",
+            initialDelayString = "${likes.reconcile.initial-delay-ms:600000}")
+    public void reconcile() {
+        clusterJobLock.runExclusively(JOB_NAME, () -> {
+            List<CountDrift> drifted = findDrift();
+            if (!drifted.isEmpty()) {
+                taskScheduler.schedule(() -> repair(drifted), Instant.now().plus(quietPeriod));
+            }
+        });
+    }
+
+    void repair(List<CountDrift> drifted) {
+        clusterJobLock.runExclusively(JOB_NAME, () -> {
+            int repaired = 0;
+            for (CountDrift drift : drifted) {
+                repaired += imageRepository.repairLikesCount(drift.getImageId(), drift.getRecorded(), drift.getActual());
+            }
+            if (repaired > 0) {
+                log.warn("Repaired likes_count drift on {} of {} candidate images", repaired, drifted.size());
+            }
+        });
+    }
+
+    private List<CountDrift> findDrift() {
+        List<CountDrift> drifted = new ArrayList<>();
+        UUID after = MIN_ID;
+        List<UUID> ids;
+        do {
+            ids = imageRepository.findIdsAfter(after, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+            drifted.addAll(imageRepository.findLikesCountDrift(ids));
+        } while (ids.size() == batchSize);
+        return drifted;
+    }
+}
@@ -0,0 +1,73 @@
+package com.innowise.image.job;
+
+import com.innowise.image.config.S3UploadProperties;
+import com.innowise.image.entity.ImageEntity;
+import com.innowise.image.repository.ImageRepository;
+import com.innowise.image.service.S3Service;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Removes presigned uploads that were never confirmed, together with any object the client
+ * managed to PUT before abandoning the flow, on one replica at a time. Each batch is locked and
+ * deleted in its own transaction, re-checking that the rows are still pending, and only the
+ * objects of rows actually deleted are removed from S3, after commit. Confirmation is refused
+ * for uploads older than the presign TTL, well before they become eligible here.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingUploadCleaner {
+
+    private static final String JOB_NAME = "pending-upload-cleaner";
+
+    private final ImageRepository imageRepository;
+    private final S3Service s3Service;
+    private final S3UploadProperties uploadProperties;
+    private final ClusterJobLock clusterJobLock;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${s3.upload.pending-cleanup.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${s3.upload.pending-cleanup.interval-ms:900000}")
+    public void removeExpiredPendingUploads() {
+        clusterJobLock.runExclusively(JOB_NAME, this::removeExpired);
+    }
+
+    private void removeExpired() {
+        Instant cutoff = Instant.now().minus(uploadProperties.presignTtl().multipliedBy(2));
+        List<ImageEntity> removed;
+        do {
+            removed = removeBatch(cutoff);
+            for (ImageEntity image : removed) {
+                try {
+                    s3Service.delete(image.getS3Key());
+                } catch (RuntimeException e) {
+                    log.warn("Failed to delete object {} of expired pending upload {}", image.getS3Key(), image.getId(), e);
+                }
+            }
+            if (!removed.isEmpty()) {
+                log.info("Removed {} expired pending uploads", removed.size());
+            }
+        } while (removed.size() == batchSize);
+    }
+
+    List<ImageEntity> removeBatch(Instant cutoff) {
+        return Objects.requireNonNullElse(transactionTemplate.execute(status -> {
+            List<ImageEntity> locked = imageRepository.lockExpiredPendingUploads(cutoff, batchSize);
+            if (!locked.isEmpty()) {
+                imageRepository.deletePendingByIds(locked.stream().map(ImageEntity::getId).toList());
+            }
+            return locked;
+        }), List.of());
+    }
+}
@@ -0,0 +1,57 @@
+package com.innowise.image.kafka;
+
+import com.innowise.common.dto.event.CommentEventDto;
+import com.innowise.common.dto.event.LikeEventDto;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Reads values written by {@link BinaryEventSerializer}.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            byte version = buffer.get();
+            if (version != BinaryEventSerializer.VERSION) {
+                throw new SerializationException("Unsupported binary event version " + version);
+            }
+            byte type = buffer.get();
+            return switch (type) {
+                case BinaryEventSerializer.LIKE -> new LikeEventDto(uuid(buffer), uuid(buffer), buffer.get() != 0);
+                case BinaryEventSerializer.COMMENT -> new CommentEventDto(
+                        uuid(buffer), uuid(buffer), uuid(buffer), buffer.get() != 0, string(buffer));
+                default -> throw new SerializationException("Unknown binary event type " + type);
+            };
+        } catch (BufferUnderflowException e) {
+            throw new SerializationException("Truncated binary event on topic " + topic, e);
+        }
+    }
+
+    private static UUID uuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,74 @@
+package com.innowise.image.kafka;
+
+import com.innowise.common.dto.event.CommentEventDto;
+import com.innowise.common.dto.event.LikeEventDto;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of like and comment events.
+ * <pre>
+ * byte   schema version (1)
+ * byte   event type (1 = like, 2 = comment)
+ * like:    uuid userId, uuid imageId, byte added
+ * comment: uuid userId, uuid imageId, uuid commentId, byte created, int length, UTF-8 content
+ * </pre>
+ * UUIDs are written as two big-endian longs; a {@code null} comment content has length -1.
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    static final byte VERSION = 1;
+    static final byte LIKE = 1;
+    static final byte COMMENT = 2;
+
+    private static final int UUID_BYTES = 16;
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (data instanceof LikeEventDto like) {
+            return ByteBuffer.allocate(2 + 2 * UUID_BYTES + 1)
+                    .put(VERSION)
+                    .put(LIKE)
+                    .put(uuid(like.getUserId()))
+                    .put(uuid(like.getImageId()))
+                    .put(flag(like.isAdded()))
+                    .array();
+        }
+        if (data instanceof CommentEventDto comment) {
+            byte[] content = comment.getContent() != null
+                    ? comment.getContent().getBytes(StandardCharsets.UTF_8) : null;
+            int contentLength = content != null ? content.length : 0;
+            ByteBuffer buffer = ByteBuffer.allocate(2 + 3 * UUID_BYTES + 1 + Integer.BYTES + contentLength)
+                    .put(VERSION)
+                    .put(COMMENT)
+                    .put(uuid(comment.getUserId()))
+                    .put(uuid(comment.getImageId()))
+                    .put(uuid(comment.getCommentId()))
+                    .put(flag(comment.isCreated()))
+                    .putInt(content != null ? content.length : -1);
+            if (content != null) {
+                buffer.put(content);
+            }
+            return buffer.array();
+        }
+        throw new SerializationException("No binary encoding for " + data.getClass().getName());
+    }
+
+    private static byte[] uuid(UUID value) {
+        return ByteBuffer.allocate(UUID_BYTES)
+                .putLong(value.getMostSignificantBits())
+                .putLong(value.getLeastSignificantBits())
+                .array();
+    }
+
+    private static byte flag(boolean value) {
+        return (byte) (value ? 1 : 0);
+    }
+}
@@ -0,0 +1,46 @@
+package com.innowise.image.kafka;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire formats of event values, announced to consumers in the {@value #HEADER} record header.
+ * Records without the header predate it and are JSON.
+ */
+public enum EventFormat {
+    JSON("json"),
+    BINARY_V1("binary-v1");
+
+    public static final String HEADER = "event-format";
+
+    private final String headerValue;
+
+    EventFormat(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    public String headerValue() {
+        return headerValue;
+    }
+
+    public void writeTo(Headers headers) {
+        headers.remove(HEADER);
+        headers.add(HEADER, headerValue.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventFormat of(Headers headers) {
+        Header header = headers != null ? headers.lastHeader(HEADER) : null;
+        if (header == null) {
+            return JSON;
+        }
+        String value = new String(header.value(), StandardCharsets.UTF_8);
+        for (EventFormat format : values()) {
+            if (format.headerValue.equals(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event format: " + value);
+    }
+}
@@ -0,0 +1,47 @@
+package com.innowise.image.kafka;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+/**
+ * Consumer-side counterpart of {@link TopicFormatSerializer}: picks the decoder from the
+ * {@link EventFormat} header of each record, so a topic can move to the binary format while
+ * older JSON records are still being read.
+ */
+public class EventFormatDeserializer implements Deserializer<Object> {
+
+    private final Deserializer<Object> jsonDeserializer;
+    private final Deserializer<Object> binaryDeserializer;
+
+    public EventFormatDeserializer(Deserializer<Object> jsonDeserializer, Deserializer<Object> binaryDeserializer) {
+        this.jsonDeserializer = jsonDeserializer;
+        this.binaryDeserializer = binaryDeserializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+        binaryDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        return switch (EventFormat.of(headers)) {
+            case BINARY_V1 -> binaryDeserializer.deserialize(topic, headers, data);
+            case JSON -> jsonDeserializer.deserialize(topic, headers, data);
+        };
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+        binaryDeserializer.close();
+    }
+}
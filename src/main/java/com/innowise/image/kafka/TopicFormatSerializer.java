@@ -0,0 +1,54 @@
+package com.innowise.image.kafka;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Encodes values in binary for the configured topics and with the JSON serializer everywhere
+ * else, tagging every record with its {@link EventFormat} so consumers can switch per record.
+ */
+public class TopicFormatSerializer implements Serializer<Object> {
+
+    private final Serializer<Object> jsonSerializer;
+    private final Serializer<Object> binarySerializer;
+    private final Set<String> binaryTopics;
+
+    public TopicFormatSerializer(Serializer<Object> jsonSerializer, Serializer<Object> binarySerializer,
+                                 Set<String> binaryTopics) {
+        this.jsonSerializer = jsonSerializer;
+        this.binarySerializer = binarySerializer;
+        this.binaryTopics = Set.copyOf(binaryTopics);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+        binarySerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return binaryTopics.contains(topic)
+                ? binarySerializer.serialize(topic, data)
+                : jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (binaryTopics.contains(topic)) {
+            EventFormat.BINARY_V1.writeTo(headers);
+            return binarySerializer.serialize(topic, headers, data);
+        }
+        EventFormat.JSON.writeTo(headers);
+        return jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+        binarySerializer.close();
+    }
+}
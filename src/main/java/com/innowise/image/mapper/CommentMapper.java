@@ -0,0 +1,20 @@
+package com.innowise.image.mapper;
+
+import com.innowise.image.dto.CommentDto;
+import com.innowise.image.entity.CommentEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CommentMapper {
+
+    public CommentDto toDto(CommentEntity comment) {
+        CommentDto dto = new CommentDto();
+        dto.setId(comment.getId());
+        dto.setImageId(comment.getImageId());
+        dto.setUserId(comment.getUserId());
+        dto.setAuthorName(comment.getAuthorName());
+        dto.setContent(comment.getContent());
+        dto.setCreatedAt(comment.getCreatedAt());
+        return dto;
+    }
+}
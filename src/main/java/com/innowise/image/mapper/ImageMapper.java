@@ -0,0 +1,23 @@
+package com.innowise.image.mapper;
+
+import com.innowise.image.dto.ImageDto;
+import com.innowise.image.entity.ImageEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies the public fields of an {@link ImageEntity} into an {@link ImageDto}.
+ * Derived fields ({@code authorName}, {@code variantUrls}) are left for the caller to fill.
+ */
+@Component
+public class ImageMapper {
+
+    public ImageDto toDto(ImageEntity image) {
+        ImageDto dto = new ImageDto();
+        dto.setId(image.getId());
+        dto.setUrl(image.getUrl());
+        dto.setDescription(image.getDescription());
+        dto.setUploadedAt(image.getUploadedAt());
+        dto.setUserId(image.getUserId());
+        return dto;
+    }
+}
@@ -1,8 +1,13 @@
 package com.innowise.image.repository;
 
 import com.innowise.image.entity.CommentEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,4 +17,27 @@ public interface CommentRepository extends JpaRepository<CommentEntity, UUID> {
     Optional<CommentEntity> findByIdAndImageIdAndUserIdOrderByCreatedAtDesc(UUID id, UUID imageId, UUID userId);
 
     List<CommentEntity> findAllByImageIdOrderByCreatedAtDesc(UUID imageId);
+
+    @Query("select c from CommentEntity c where c.imageId = :imageId order by c.createdAt desc, c.id desc")
+    List<CommentEntity> findByImageIdOrderByCreatedAtDescIdDesc(@Param("imageId") UUID imageId, Limit limit);
+
+    @Query("select c from CommentEntity c " +
+            "where c.imageId = :imageId " +
+            "and c.createdAt <= :createdAt and (c.createdAt < :createdAt or c.id < :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CommentEntity> findPageAfter(@Param("imageId") UUID imageId, @Param("createdAt") Instant createdAt,
+                                      @Param("id") UUID id, Limit limit);
+
+    @Query("select count(c) > 0 from CommentEntity c " +
+            "where c.userId = :userId and (c.authorName is null or c.authorName <> :authorName)")
+    boolean hasStaleAuthorName(@Param("userId") UUID userId, @Param("authorName") String authorName);
+
+    @Modifying
+    @Query("update CommentEntity c set c.authorName = :authorName " +
+            "where c.userId = :userId and (c.authorName is null or c.authorName <> :authorName)")
+    int updateAuthorName(@Param("userId") UUID userId, @Param("authorName") String authorName);
+
+    @Modifying
+    @Query("delete from CommentEntity c where c.imageId = :imageId")
+    int deleteByImageId(@Param("imageId") UUID imageId);
 }
\ No newline at end of file
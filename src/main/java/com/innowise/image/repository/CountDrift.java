@@ -0,0 +1,12 @@
+package com.innowise.image.repository;
+
+import java.util.UUID;
+
+/**
+ * A denormalized per-image counter that disagrees with the rows it counts.
+ */
+public interface CountDrift {
+    UUID getImageId();
+    long getRecorded();
+    long getActual();
+}
@@ -0,0 +1,26 @@
+package com.innowise.image.repository;
+
+import com.innowise.image.entity.ImageBlobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlobEntity, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO gallery.image_blobs AS b (sha256, s3_key, ref_count) VALUES (:sha256, :s3Key, 1) " +
+            "ON CONFLICT (sha256) DO UPDATE SET ref_count = b.ref_count + 1", nativeQuery = true)
+    int addReference(@Param("sha256") String sha256, @Param("s3Key") String s3Key);
+
+    @Query("select b.s3Key from ImageBlobEntity b where b.sha256 = :sha256")
+    String findS3KeyBySha256(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query("update ImageBlobEntity b set b.refCount = b.refCount - 1 where b.sha256 = :sha256")
+    int removeReference(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query("delete from ImageBlobEntity b where b.sha256 = :sha256 and b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+}
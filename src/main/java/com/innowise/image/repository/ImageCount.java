@@ -0,0 +1,11 @@
+package com.innowise.image.repository;
+
+import java.util.UUID;
+
+/**
+ * Per-image count returned by set-based aggregate queries.
+ */
+public interface ImageCount {
+    UUID getImageId();
+    long getTotal();
+}
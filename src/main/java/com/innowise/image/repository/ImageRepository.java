@@ -1,13 +1,172 @@
 package com.innowise.image.repository;
 
 import com.innowise.image.entity.ImageEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ImageRepository extends JpaRepository<ImageEntity, UUID> {
-    Page<ImageEntity> findByUserIdOrderByUploadedAtDesc(UUID userId, Pageable pageable);
+
+    String READY = "com.innowise.image.entity.ImageStatus.READY";
+
+    /*
+     * Version bumps are strictly increasing per row even if the clock does not advance or a
+     * transaction that started earlier commits later, so Last-Modified never moves backwards.
+     */
+    String NEXT_VERSION_UPDATED_AT =
+            "GREATEST(updated_at + INTERVAL '1 microsecond', clock_timestamp())";
+    String NEXT_VERSION_COMMENTS_UPDATED_AT =
+            "GREATEST(comments_updated_at + INTERVAL '1 microsecond', clock_timestamp())";
+
+    @Query("select i from ImageEntity i where i.userId = :userId and i.status = " + READY +
+            " order by i.uploadedAt desc, i.id desc")
+    Page<ImageEntity> findByUserIdOrderByUploadedAtDesc(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("select i from ImageEntity i where i.status = " + READY + " order by i.uploadedAt desc, i.id desc")
     Page<ImageEntity> findAllByOrderByUploadedAtDesc(Pageable pageable);
+
+    @Query("select i from ImageEntity i where i.status = " + READY + " order by i.uploadedAt desc, i.id desc")
+    List<ImageEntity> findAllByOrderByUploadedAtDescIdDesc(Limit limit);
+
+    @Query("select count(i) from ImageEntity i where i.status = " + READY)
+    long countReady();
+
+    @Query("select i from ImageEntity i " +
+            "where i.status = " + READY + " " +
+            "and i.uploadedAt <= :uploadedAt and (i.uploadedAt < :uploadedAt or i.id < :id) " +
+            "order by i.uploadedAt desc, i.id desc")
+    List<ImageEntity> findPageAfter(@Param("uploadedAt") Instant uploadedAt, @Param("id") UUID id, Limit limit);
+
+    @Query("select i from ImageEntity i where i.userId = :userId and i.status = " + READY +
+            " order by i.uploadedAt desc, i.id desc")
+    List<ImageEntity> findByUserIdOrderByUploadedAtDescIdDesc(@Param("userId") UUID userId, Limit limit);
+
+    @Query("select i from ImageEntity i " +
+            "where i.userId = :userId and i.status = " + READY + " " +
+            "and i.uploadedAt <= :uploadedAt and (i.uploadedAt < :uploadedAt or i.id < :id) " +
+            "order by i.uploadedAt desc, i.id desc")
+    List<ImageEntity> findUserPageAfter(@Param("userId") UUID userId, @Param("uploadedAt") Instant uploadedAt,
+                                        @Param("id") UUID id, Limit limit);
+
+    @Query("select i.likesCount from ImageEntity i where i.id = :id")
+    Optional<Integer> findLikesCountById(@Param("id") UUID id);
+
+    @Query("select i.id as imageId, i.likesCount as total from ImageEntity i where i.id in :ids")
+    List<ImageCount> findLikesCounts(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Locks up to {@code limit} pending uploads created before {@code cutoff}, skipping rows a
+     * concurrent confirmation is writing. Must run inside a transaction.
+     */
+    @Query(value = "SELECT * FROM gallery.images WHERE status = 'PENDING' AND uploaded_at < :cutoff " +
+            "ORDER BY uploaded_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ImageEntity> lockExpiredPendingUploads(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM gallery.images WHERE id IN (:ids) AND status = 'PENDING'", nativeQuery = true)
+    int deletePendingByIds(@Param("ids") Collection<UUID> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE gallery.images SET variants_ready = TRUE, updated_at = " + NEXT_VERSION_UPDATED_AT +
+            " WHERE id = :id", nativeQuery = true)
+    int markVariantsReady(@Param("id") UUID id);
+
+    /**
+     * Marks a confirmed presigned upload ready, unless it was created before {@code notBefore}.
+     * Of concurrent confirmations of the same image, only one sees a row updated.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE gallery.images SET status = 'READY', uploaded_at = :uploadedAt, updated_at = " +
+            NEXT_VERSION_UPDATED_AT + " WHERE id = :id AND status = 'PENDING' AND uploaded_at >= :notBefore",
+            nativeQuery = true)
+    int markReady(@Param("id") UUID id, @Param("uploadedAt") Instant uploadedAt, @Param("notBefore") Instant notBefore);
+
+    @Query("select i.commentsUpdatedAt from ImageEntity i where i.id = :id and i.status = " + READY)
+    Optional<Instant> findCommentsUpdatedAtById(@Param("id") UUID id);
+
+    @Modifying
+    @Query(value = "UPDATE gallery.images SET comments_updated_at = " + NEXT_VERSION_COMMENTS_UPDATED_AT +
+            " WHERE id = :id", nativeQuery = true)
+    int touchComments(@Param("id") UUID id);
+
+    @Modifying
+    @Query(value = "UPDATE gallery.images SET comments_count = comments_count + :delta, " +
+            "comments_updated_at = " + NEXT_VERSION_COMMENTS_UPDATED_AT + " WHERE id = :id", nativeQuery = true)
+    int adjustCommentsCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    @Query("select i.commentsCount from ImageEntity i where i.id = :id")
+    Optional<Integer> findCommentsCountById(@Param("id") UUID id);
+
+    @Query("select i.id as imageId, i.commentsCount as total from ImageEntity i where i.id in :ids")
+    List<ImageCount> findCommentsCounts(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "UPDATE gallery.images SET comments_updated_at = " + NEXT_VERSION_COMMENTS_UPDATED_AT +
+            " WHERE id IN (SELECT DISTINCT image_id FROM gallery.comments WHERE user_id = :userId)",
+            nativeQuery = true)
+    int touchCommentsOfUser(@Param("userId") UUID userId);
+
+    boolean existsByS3KeyAndVariantsReadyTrue(String s3Key);
+
+    @Modifying
+    @Query("delete from ImageEntity i where i.id = :id")
+    int deleteImageById(@Param("id") UUID id);
+
+    @Query("select i.id from ImageEntity i where i.id > :after order by i.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Limit limit);
+
+    @Query(value = "SELECT i.id AS imageId, CAST(i.likes_count AS BIGINT) AS recorded, c.cnt AS actual " +
+            "FROM gallery.images i " +
+            "JOIN (SELECT im.id, COUNT(l.id) AS cnt FROM gallery.images im " +
+            "      LEFT JOIN gallery.likes l ON l.image_id = im.id " +
+            "      WHERE im.id IN (:ids) GROUP BY im.id) c ON c.id = i.id " +
+            "WHERE i.likes_count <> c.cnt", nativeQuery = true)
+    List<CountDrift> findLikesCountDrift(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Corrects a drift found earlier, but only if neither the counter nor the like rows changed
+     * since: a counter flush racing with this statement fails the {@code likes_count} check
+     * when it is re-evaluated under the row lock, and likes committed after the statement's
+     * snapshot reach the counter through their own pending deltas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE gallery.images i SET likes_count = :actual " +
+            "WHERE i.id = :id AND i.likes_count = :recorded " +
+            "AND (SELECT COUNT(*) FROM gallery.likes l WHERE l.image_id = :id) = :actual", nativeQuery = true)
+    int repairLikesCount(@Param("id") UUID id, @Param("recorded") long recorded, @Param("actual") long actual);
+
+    /**
+     * Locks those of {@code ids} that no transaction is currently writing, skipping busy rows.
+     * Must run inside a transaction.
+     */
+    @Query(value = "SELECT id FROM gallery.images WHERE id IN (:ids) ORDER BY id FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<UUID> lockIdleImages(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Recounts comments for images locked by {@link #lockIdleImages} in the same transaction.
+     * Running after the lock, the statement sees every committed comment, and comment writes
+     * that have not committed yet adjust the counter only once the lock is released.
+     */
+    @Modifying
+    @Query(value = "UPDATE gallery.images i SET comments_count = c.cnt " +
+            "FROM (SELECT im.id, COUNT(cm.id) AS cnt FROM gallery.images im " +
+            "      LEFT JOIN gallery.comments cm ON cm.image_id = im.id " +
+            "      WHERE im.id IN (:ids) GROUP BY im.id) c " +
+            "WHERE i.id = c.id AND i.comments_count <> c.cnt", nativeQuery = true)
+    int reconcileCommentsCounts(@Param("ids") Collection<UUID> ids);
 }
@@ -2,11 +2,23 @@ package com.innowise.image.repository;
 
 import com.innowise.image.entity.LikeEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface LikeRepository extends JpaRepository<LikeEntity, UUID> {
     Optional<LikeEntity> findByImageIdAndUserId(UUID imageId, UUID userId);
     int countByImageId(UUID imageId);
+
+    @Query("select l.imageId from LikeEntity l where l.userId = :userId and l.imageId in :imageIds")
+    Set<UUID> findLikedImageIds(@Param("userId") UUID userId, @Param("imageIds") Collection<UUID> imageIds);
+
+    @Modifying
+    @Query("delete from LikeEntity l where l.imageId = :imageId")
+    int deleteByImageId(@Param("imageId") UUID imageId);
 }
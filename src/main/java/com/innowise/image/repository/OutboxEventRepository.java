@@ -0,0 +1,7 @@
+package com.innowise.image.repository;
+
+import com.innowise.image.entity.OutboxEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+}
@@ -1,6 +1,5 @@
 package com.innowise.image.security;
 
-import com.innowise.common.security.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,7 +23,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String HEADER_AUTH = "Authorization";
     private static final String ERROR_JSON_TEMPLATE = "{\"error\":\"%s\"}";
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -42,27 +41,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String username = jwtUtil.extractUsername(token);
-        UUID tokenUserId = jwtUtil.extractUserId(token);
-        boolean valid;
-        try {
-            valid = jwtUtil.validateToken(token);
-        } catch (Exception e) {
-            valid = false;
-        }
-
-        if (!valid || username == null || tokenUserId == null) {
+        JwtPrincipal principal = verifiedTokenCache.verify(token);
+        if (principal == null) {
             respond401(response, "Invalid or expired token");
             return;
         }
 
-        if (isRestrictedImagePath(path) && !isUserIdMatch(path, tokenUserId)) {
+        if (isRestrictedImagePath(path) && !isUserIdMatch(path, principal.userId())) {
             respond403(response, "Access denied");
             return;
         }
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(username, null,
+                new UsernamePasswordAuthenticationToken(principal, null,
                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
         SecurityContextHolder.getContext().setAuthentication(auth);
 
@@ -77,13 +68,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return header.substring(AUTH_SCHEME.length()).trim();
     }
 
-    private boolean isRestrictedImagePath(String path) {
+    static boolean isRestrictedImagePath(String path) {
         if (!path.startsWith("/api/user/")) return false;
         String[] seg = path.split("/");
         return seg.length >= 5 && "images".equals(seg[4]);
     }
 
-    private boolean isUserIdMatch(String path, UUID tokenUserId) {
+    static boolean isUserIdMatch(String path, UUID tokenUserId) {
         String[] segments = path.split("/");
         if (segments.length > 3) {
             String pathUserId = segments[3];
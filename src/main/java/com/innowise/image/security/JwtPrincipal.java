@@ -0,0 +1,19 @@
+package com.innowise.image.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.UUID;
+
+/**
+ * The verified identity carried by a bearer token, stored as the principal of the request's
+ * {@code Authentication} and injected into controller methods by {@link JwtPrincipalArgumentResolver}.
+ * Deliberately not a {@link java.security.Principal}: MVC would otherwise resolve such parameters
+ * from {@code request.getUserPrincipal()} before any custom resolver is consulted.
+ */
+public record JwtPrincipal(UUID userId, String username) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,134 @@
+package com.innowise.image.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.innowise.common.security.JwtUtil;
+import com.innowise.image.config.JwtCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies bearer tokens through {@link JwtUtil} once per token and remembers the resulting
+ * principal until the token's {@code exp} (capped at {@code jwt.cache.max-ttl}).
+ * Entries are keyed by the SHA-256 of the token so raw credentials are never retained, and
+ * rejected tokens are not cached.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt-principals";
+
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final long maxTtlNanos;
+    private final Cache<String, Entry> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, ObjectMapper objectMapper,
+                              JwtCacheProperties properties, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.maxTtlNanos = properties.maxTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @return the token's principal, or {@code null} if the token is invalid or expired
+     */
+    public JwtPrincipal verify(String token) {
+        String key = digest(token);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.expiresAtNanos - System.nanoTime() > 0) {
+            return cached.principal;
+        }
+
+        JwtPrincipal principal = parse(token);
+        if (principal == null) {
+            return null;
+        }
+        long ttlNanos = ttlNanos(token);
+        if (ttlNanos > 0) {
+            cache.put(key, new Entry(principal, System.nanoTime() + ttlNanos));
+        }
+        return principal;
+    }
+
+    private JwtPrincipal parse(String token) {
+        try {
+            if (!jwtUtil.validateToken(token)) {
+                return null;
+            }
+            UUID userId = jwtUtil.extractUserId(token);
+            String username = jwtUtil.extractUsername(token);
+            return userId != null && username != null ? new JwtPrincipal(userId, username) : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads {@code exp} from the payload of a token that {@link JwtUtil} has already verified.
+     * Tokens without an expiry are kept for the maximum TTL; unreadable payloads are not cached.
+     */
+    private long ttlNanos(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return 0;
+        }
+        try {
+            JsonNode exp = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1])).get("exp");
+            if (exp == null || !exp.canConvertToLong()) {
+                return maxTtlNanos;
+            }
+            long untilExpiry = TimeUnit.MILLISECONDS.toNanos(exp.asLong() * 1000 - System.currentTimeMillis());
+            return Math.min(untilExpiry, maxTtlNanos);
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(JwtPrincipal principal, long expiresAtNanos) {}
+
+    private static final class UntilTokenExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry value, long currentTime) {
+            return Math.max(0, value.expiresAtNanos - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.innowise.image.service;
 
 import com.innowise.image.dto.CommentDto;
+import com.innowise.image.dto.CursorPageResponseDto;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CommentService {
-    CommentDto addComment(UUID imageId, UUID userId, CommentDto request);
+    CommentDto addComment(UUID imageId, UUID userId, String authorName, CommentDto request);
     List<CommentDto> listComments(UUID imageId);
-    CommentDto updateComment(UUID imageId, UUID commentId, UUID userId, CommentDto request);
+    CursorPageResponseDto<CommentDto> listComments(UUID imageId, String cursor, int size);
+    int countComments(UUID imageId);
+    Map<UUID, Integer> countComments(Collection<UUID> imageIds);
+    Optional<Instant> getCommentsVersion(UUID imageId);
+    CommentDto updateComment(UUID imageId, UUID commentId, UUID userId, String authorName, CommentDto request);
     void deleteComment(UUID imageId, UUID commentId, UUID userId);
 }
\ No newline at end of file
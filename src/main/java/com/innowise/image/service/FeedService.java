@@ -0,0 +1,10 @@
+package com.innowise.image.service;
+
+import com.innowise.image.dto.CursorPageResponseDto;
+import com.innowise.image.dto.ImageCardDto;
+
+import java.util.UUID;
+
+public interface FeedService {
+    CursorPageResponseDto<ImageCardDto> getFeed(UUID viewerId, String cursor, int size);
+}
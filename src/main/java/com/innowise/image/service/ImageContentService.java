@@ -0,0 +1,10 @@
+package com.innowise.image.service;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+public interface ImageContentService {
+    ImageContent getContent(UUID imageId);
+
+    record ImageContent(Path path, long length, String contentType, String eTag) {}
+}
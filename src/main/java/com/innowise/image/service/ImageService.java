@@ -1,17 +1,33 @@
 package com.innowise.image.service;
 
+import com.innowise.image.dto.CursorPageResponseDto;
 import com.innowise.image.dto.ImageDto;
+import com.innowise.image.dto.PresignedUploadDto;
+import com.innowise.image.dto.PresignedUploadRequestDto;
 import com.innowise.image.dto.UploadResponseDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface ImageService {
     UploadResponseDto uploadImage(MultipartFile file, UUID userId, String description) throws IOException;
+    UploadResponseDto uploadImageStream(InputStream content, String filename, String contentType,
+                                        UUID userId, String description) throws IOException;
+    CompletableFuture<UploadResponseDto> uploadImageAsync(MultipartFile file, UUID userId, String description)
+            throws IOException;
+    PresignedUploadDto createPresignedUpload(PresignedUploadRequestDto request, UUID userId);
+    UploadResponseDto confirmUpload(UUID imageId, UUID userId);
     ImageDto getImage(UUID id);
+    Instant getImageVersion(UUID id);
+    void deleteImage(UUID imageId, UUID userId);
     Page<ImageDto> getUserImages(UUID userId, Pageable pageable);
     Page<ImageDto> getAllImages(Pageable pageable);
+    CursorPageResponseDto<ImageDto> getUserImages(UUID userId, String cursor, int size);
+    CursorPageResponseDto<ImageDto> getAllImages(String cursor, int size);
 }
\ No newline at end of file
@@ -1,8 +1,9 @@
 package com.innowise.image.service;
 
-import java.util.UUID;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface KafkaProducerService {
-    void sendLikeEvent(UUID userId, UUID imageId, boolean isAdded);
-    void sendCommentEvent(UUID userId, UUID imageId, UUID commentId, String content, boolean isCreated);
+    CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object event);
 }
@@ -0,0 +1,8 @@
+package com.innowise.image.service;
+
+import java.util.UUID;
+
+public interface OutboxService {
+    void enqueueLikeEvent(UUID userId, UUID imageId, boolean isAdded);
+    void enqueueCommentEvent(UUID userId, UUID imageId, UUID commentId, String content, boolean isCreated);
+}
@@ -1,6 +1,12 @@
 package com.innowise.image.service;
 
+import java.time.Instant;
+
 public interface S3Service {
     String upload(byte[] data, String key, String contentType);
     void delete(String key);
+    boolean exists(String key);
+    PresignedUpload presignUpload(String key, String contentType);
+
+    record PresignedUpload(String url, Instant expiresAt) {}
 }
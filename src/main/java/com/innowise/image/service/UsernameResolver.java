@@ -0,0 +1,10 @@
+package com.innowise.image.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+public interface UsernameResolver {
+    String resolve(UUID userId);
+    Map<UUID, String> resolveAll(Collection<UUID> userIds);
+}
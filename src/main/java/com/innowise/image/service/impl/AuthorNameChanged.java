@@ -0,0 +1,10 @@
+package com.innowise.image.service.impl;
+
+import java.util.UUID;
+
+/**
+ * Raised when a comment write carries a username that differs from the snapshot stored on some
+ * of the user's comments.
+ */
+record AuthorNameChanged(UUID userId, String authorName) {
+}
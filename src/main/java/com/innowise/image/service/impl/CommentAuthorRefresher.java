@@ -0,0 +1,43 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.repository.CommentRepository;
+import com.innowise.image.repository.ImageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * Rewrites the author name snapshot stored on a user's comments after their username changed.
+ * Runs only once the comment write that noticed the change has committed, and off the request
+ * thread so comment writes never wait on the bulk update.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentAuthorRefresher {
+
+    private final CommentRepository commentRepository;
+    private final ImageRepository imageRepository;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAuthorNameChanged(AuthorNameChanged event) {
+        refreshAuthorName(event.userId(), event.authorName());
+    }
+
+    private void refreshAuthorName(UUID userId, String authorName) {
+        int updated = commentRepository.updateAuthorName(userId, authorName);
+        if (updated > 0) {
+            imageRepository.touchCommentsOfUser(userId);
+        }
+        log.info("Refreshed author name on {} comments of user {}", updated, userId);
+    }
+}
@@ -1,76 +1,165 @@
 package com.innowise.image.service.impl;
 
-import com.innowise.image.client.AuthServiceClient;
 import com.innowise.image.dto.CommentDto;
+import com.innowise.image.dto.CursorPageResponseDto;
+import com.innowise.image.dto.KeysetCursor;
 import com.innowise.image.entity.CommentEntity;
 import com.innowise.image.exception.NotFoundException;
+import com.innowise.image.mapper.CommentMapper;
 import com.innowise.image.repository.CommentRepository;
+import com.innowise.image.repository.ImageCount;
+import com.innowise.image.repository.ImageRepository;
 import com.innowise.image.service.CommentService;
-import com.innowise.image.service.KafkaProducerService;
+import com.innowise.image.service.OutboxService;
+import com.innowise.image.service.UsernameResolver;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final CommentRepository commentRepository;
-    private final KafkaProducerService kafkaProducerService;
-    private final AuthServiceClient authServiceClient;
-    private final ModelMapper modelMapper;
+    private final ImageRepository imageRepository;
+    private final OutboxService outboxService;
+    private final UsernameResolver usernameResolver;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CommentMapper commentMapper;
 
     @Override
-    public CommentDto addComment(UUID imageId, UUID userId, CommentDto request) {
+    @Transactional
+    public CommentDto addComment(UUID imageId, UUID userId, String authorName, CommentDto request) {
+        publishIfRenamed(userId, authorName);
         CommentEntity comment = CommentEntity.builder()
                 .imageId(imageId)
                 .userId(userId)
+                .authorName(authorName != null ? authorName : usernameResolver.resolve(userId))
                 .content(request.getContent())
                 .createdAt(Instant.now())
                 .build();
         CommentEntity savedComment = commentRepository.save(comment);
-        kafkaProducerService.sendCommentEvent(userId, imageId, savedComment.getId(), request.getContent(), true);
+        imageRepository.adjustCommentsCount(imageId, 1);
+        outboxService.enqueueCommentEvent(userId, imageId, savedComment.getId(), request.getContent(), true);
 
-        CommentDto commentDto = modelMapper.map(comment, CommentDto.class);
-        commentDto.setAuthorName(authServiceClient.getUsernameById(userId));
-        return commentDto;
+        return commentMapper.toDto(comment);
     }
 
     @Override
-    public CommentDto updateComment(UUID imageId, UUID commentId, UUID userId, CommentDto request) {
+    @Transactional
+    public CommentDto updateComment(UUID imageId, UUID commentId, UUID userId, String authorName, CommentDto request) {
         CommentEntity comment = commentRepository.findByIdAndImageIdAndUserIdOrderByCreatedAtDesc(commentId, imageId, userId)
                 .orElseThrow(() -> new NotFoundException("Comment not found"));
         comment.setContent(request.getContent());
+        if (authorName != null) {
+            publishIfRenamed(userId, authorName);
+            comment.setAuthorName(authorName);
+        }
         commentRepository.save(comment);
-        CommentDto commentDto = modelMapper.map(comment, CommentDto.class);
-        commentDto.setAuthorName(authServiceClient.getUsernameById(userId));
-        return commentDto;
+        imageRepository.touchComments(imageId);
+        return commentMapper.toDto(comment);
     }
 
     @Override
+    @Transactional
     public void deleteComment(UUID imageId, UUID commentId, UUID userId) {
         CommentEntity comment = commentRepository.findByIdAndImageIdAndUserIdOrderByCreatedAtDesc(commentId, imageId, userId)
                 .orElseThrow(() -> new NotFoundException("Comment not found"));
         String content = comment.getContent();
         commentRepository.delete(comment);
-        kafkaProducerService.sendCommentEvent(userId, imageId, commentId, content, false);
+        imageRepository.adjustCommentsCount(imageId, -1);
+        outboxService.enqueueCommentEvent(userId, imageId, commentId, content, false);
+    }
+
+    /**
+     * Schedules a refresh of the user's older author name snapshots, to run after commit, when
+     * the name from the token no longer matches them.
+     */
+    private void publishIfRenamed(UUID userId, String authorName) {
+        if (authorName != null && commentRepository.hasStaleAuthorName(userId, authorName)) {
+            eventPublisher.publishEvent(new AuthorNameChanged(userId, authorName));
+        }
     }
 
     @Override
     public List<CommentDto> listComments(UUID imageId) {
-        List<CommentEntity> comments = commentRepository.findAllByImageIdOrderByCreatedAtDesc(imageId);
+        return toCommentDtos(commentRepository.findAllByImageIdOrderByCreatedAtDesc(imageId));
+    }
+
+    @Override
+    public CursorPageResponseDto<CommentDto> listComments(UUID imageId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+        List<CommentEntity> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findByImageIdOrderByCreatedAtDescIdDesc(imageId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            comments = commentRepository.findPageAfter(imageId, after.timestamp(), after.id(), limit);
+        }
+
+        boolean last = comments.size() <= pageSize;
+        List<CommentEntity> page = last ? comments : comments.subList(0, pageSize);
+        String nextCursor = null;
+        if (!last) {
+            CommentEntity tail = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(tail.getCreatedAt(), tail.getId()).encode();
+        }
+        return CursorPageResponseDto.<CommentDto>builder()
+                .content(toCommentDtos(page))
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .last(last)
+                .build();
+    }
+
+    private List<CommentDto> toCommentDtos(List<CommentEntity> comments) {
+        Map<UUID, String> legacyAuthorNames = usernameResolver.resolveAll(comments.stream()
+                .filter(comment -> comment.getAuthorName() == null)
+                .map(CommentEntity::getUserId)
+                .toList());
         return comments.stream()
-                .map(this::toCommentDto)
+                .map(comment -> toCommentDto(comment, legacyAuthorNames))
                 .toList();
     }
 
-    private CommentDto toCommentDto(CommentEntity comment) {
-        CommentDto dto = modelMapper.map(comment, CommentDto.class);
-        dto.setAuthorName(authServiceClient.getUsernameById(comment.getUserId()));
+    @Override
+    public int countComments(UUID imageId) {
+        return imageRepository.findCommentsCountById(imageId)
+                .orElseThrow(() -> new NotFoundException("Image not found with id: " + imageId));
+    }
+
+    @Override
+    public Map<UUID, Integer> countComments(Collection<UUID> imageIds) {
+        if (imageIds.isEmpty()) {
+            return Map.of();
+        }
+        return imageRepository.findCommentsCounts(imageIds).stream()
+                .collect(Collectors.toMap(ImageCount::getImageId, count -> (int) count.getTotal()));
+    }
+
+    @Override
+    public Optional<Instant> getCommentsVersion(UUID imageId) {
+        return imageRepository.findCommentsUpdatedAtById(imageId);
+    }
+
+    private CommentDto toCommentDto(CommentEntity comment, Map<UUID, String> legacyAuthorNames) {
+        CommentDto dto = commentMapper.toDto(comment);
+        dto.setAuthorName(Objects.requireNonNullElse(comment.getAuthorName(),
+                legacyAuthorNames.get(comment.getUserId())));
         return dto;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.innowise.image.service.impl;
+
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of content computed as it is read by whoever consumes the stream. Mark/reset is
+ * disabled so that a consumer replaying bytes (the AWS SDK does on retries) has to buffer
+ * above this stream and every byte is hashed exactly once.
+ */
+final class ContentDigest {
+
+    private ContentDigest() {
+    }
+
+    static DigestInputStream sha256(InputStream in) {
+        return new DigestInputStream(in, newSha256()) {
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        };
+    }
+
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String hex(DigestInputStream in) {
+        return hex(in.getMessageDigest());
+    }
+
+    static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
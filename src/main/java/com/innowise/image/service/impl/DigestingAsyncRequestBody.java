@@ -0,0 +1,69 @@
+package com.innowise.image.service.impl;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+/**
+ * Request body that computes the SHA-256 of the bytes the SDK reads from it, in the same pass
+ * as the transfer. A retried request subscribes again and reads from the start, so every
+ * subscription starts a fresh digest and the last one describes the content that was sent.
+ */
+final class DigestingAsyncRequestBody implements AsyncRequestBody {
+
+    private final AsyncRequestBody delegate;
+    private volatile MessageDigest digest = ContentDigest.newSha256();
+
+    DigestingAsyncRequestBody(AsyncRequestBody delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<Long> contentLength() {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public String contentType() {
+        return delegate.contentType();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+        MessageDigest current = ContentDigest.newSha256();
+        digest = current;
+        delegate.subscribe(new Subscriber<>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(ByteBuffer buffer) {
+                current.update(buffer.duplicate());
+                subscriber.onNext(buffer);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                subscriber.onError(error);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+
+    /**
+     * @return hex SHA-256 of the content read by the latest subscription; call once it completed
+     */
+    String sha256() {
+        return ContentDigest.hex(digest);
+    }
+}
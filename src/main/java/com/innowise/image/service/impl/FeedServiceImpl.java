@@ -0,0 +1,82 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.dto.CursorPageResponseDto;
+import com.innowise.image.dto.ImageCardDto;
+import com.innowise.image.dto.ImageDto;
+import com.innowise.image.repository.ImageCount;
+import com.innowise.image.repository.ImageRepository;
+import com.innowise.image.repository.LikeRepository;
+import com.innowise.image.service.FeedService;
+import com.innowise.image.service.ImageService;
+import com.innowise.image.service.UsernameResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Builds feed pages of enriched image cards. The page itself comes from the keyset listing;
+ * like counts, comment counts, author names and the viewer's likes are each loaded with one
+ * set-based lookup for the whole page.
+ * <p>
+ * Not transactional: each lookup runs in its own short repository transaction, so no database
+ * connection is held while author names are resolved over HTTP.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedServiceImpl implements FeedService {
+
+    private final ImageService imageService;
+    private final ImageRepository imageRepository;
+    private final LikeRepository likeRepository;
+    private final LikeCountAggregator likeCountAggregator;
+    private final UsernameResolver usernameResolver;
+
+    @Override
+    public CursorPageResponseDto<ImageCardDto> getFeed(UUID viewerId, String cursor, int size) {
+        CursorPageResponseDto<ImageDto> page = imageService.getAllImages(cursor, size);
+        List<ImageDto> images = page.getContent();
+
+        List<ImageCardDto> cards = List.of();
+        if (!images.isEmpty()) {
+            List<UUID> imageIds = images.stream().map(ImageDto::getId).toList();
+            Map<UUID, Long> likesCounts = toMap(imageRepository.findLikesCounts(imageIds));
+            Map<UUID, Long> commentsCounts = toMap(imageRepository.findCommentsCounts(imageIds));
+            Set<UUID> liked = viewerId != null ? likeRepository.findLikedImageIds(viewerId, imageIds) : Set.of();
+            Map<UUID, String> authorNames = usernameResolver.resolveAll(
+                    images.stream().map(ImageDto::getUserId).toList());
+
+            cards = images.stream()
+                    .map(image -> ImageCardDto.builder()
+                            .id(image.getId())
+                            .url(image.getUrl())
+                            .description(image.getDescription())
+                            .uploadedAt(image.getUploadedAt())
+                            .userId(image.getUserId())
+                            .authorName(authorNames.get(image.getUserId()))
+                            .variantUrls(image.getVariantUrls())
+                            .likesCount(Math.max(0, likesCounts.getOrDefault(image.getId(), 0L)
+                                    + likeCountAggregator.pendingDelta(image.getId())))
+                            .commentsCount(commentsCounts.getOrDefault(image.getId(), 0L))
+                            .likedByMe(liked.contains(image.getId()))
+                            .build())
+                    .toList();
+        }
+
+        return CursorPageResponseDto.<ImageCardDto>builder()
+                .content(cards)
+                .size(page.getSize())
+                .nextCursor(page.getNextCursor())
+                .last(page.isLast())
+                .build();
+    }
+
+    private static Map<UUID, Long> toMap(Collection<ImageCount> counts) {
+        return counts.stream().collect(Collectors.toMap(ImageCount::getImageId, ImageCount::getTotal));
+    }
+}
@@ -0,0 +1,216 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.HotFeedProperties;
+import com.innowise.image.dto.ImageChangeEvent;
+import com.innowise.image.dto.KeysetCursor;
+import com.innowise.image.entity.ImageEntity;
+import com.innowise.image.entity.ImageStatus;
+import com.innowise.image.repository.ImageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The newest ready images, kept in memory so the first pages of the global feed need no
+ * database access. Ordered like the feed queries: {@code uploaded_at desc, id desc}.
+ * <p>
+ * Seeded on startup and kept current from {@link ImageChangeBroadcaster} events, so uploads
+ * on any replica show up here. The window is re-read periodically to bound drift from missed
+ * broadcasts. Requests reaching past the window fall back to the database, signalled by an
+ * empty result. Readers see an immutable snapshot; cached entities must not be modified.
+ */
+@Slf4j
+@Component
+public class HotFeedWindow implements ImageChangeListener {
+
+    private final ImageRepository imageRepository;
+    private final int capacity;
+
+    private volatile Snapshot snapshot;
+
+    public HotFeedWindow(ImageRepository imageRepository, HotFeedProperties properties) {
+        this.imageRepository = imageRepository;
+        this.capacity = properties.capacity();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${images.hot-feed.resync-interval-ms:300000}",
+            initialDelayString = "${images.hot-feed.resync-interval-ms:300000}")
+    public void resync() {
+        try {
+            List<ImageEntity> newest = imageRepository.findAllByOrderByUploadedAtDescIdDesc(Limit.of(capacity));
+            Snapshot loaded = new Snapshot(List.copyOf(newest), imageRepository.countReady());
+            synchronized (this) {
+                snapshot = loaded;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to load the hot feed window, serving the feed from the database", e);
+        }
+    }
+
+    /**
+     * @return the requested page, or empty when it is not fully covered by the window
+     */
+    public Optional<Page<ImageEntity>> page(Pageable pageable) {
+        Snapshot current = snapshot;
+        if (current == null || pageable.isUnpaged() || pageable.getSort().isSorted()) {
+            return Optional.empty();
+        }
+        long from = pageable.getOffset();
+        long to = from + pageable.getPageSize();
+        if (!current.covers(to)) {
+            return Optional.empty();
+        }
+        List<ImageEntity> images = current.images();
+        int end = (int) Math.min(to, images.size());
+        List<ImageEntity> content = images.subList((int) Math.min(from, end), end);
+        return Optional.of(new PageImpl<>(content, pageable, current.total()));
+    }
+
+    /**
+     * @param after position to continue from, or {@code null} for the newest images
+     * @return up to {@code limit} images following {@code after}, or empty when the window
+     *         cannot tell whether older images exist
+     */
+    public Optional<List<ImageEntity>> newest(KeysetCursor after, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        List<ImageEntity> images = current.images();
+        int from = after == null ? 0 : firstOlderThan(images, after.timestamp(), after.id());
+        if (!current.covers((long) from + limit)) {
+            return Optional.empty();
+        }
+        return Optional.of(images.subList(from, Math.min(from + limit, images.size())));
+    }
+
+    @Override
+    public void onImageChange(ImageChangeEvent event) {
+        switch (event.type()) {
+            case CREATED -> upsert(event.imageId(), true);
+            case UPDATED -> upsert(event.imageId(), false);
+            case DELETED -> remove(event.imageId());
+        }
+    }
+
+    /**
+     * Loads the image without holding the lock, so a slow query does not stall other updates;
+     * the snapshot is re-read under the lock before the change is applied.
+     */
+    private void upsert(UUID imageId, boolean created) {
+        Snapshot current = snapshot;
+        if (current == null || !created && indexOf(current.images(), imageId) < 0) {
+            return;
+        }
+        imageRepository.findById(imageId)
+                .filter(image -> image.getStatus() == ImageStatus.READY)
+                .ifPresent(image -> apply(image, created));
+    }
+
+    private synchronized void apply(ImageEntity image, boolean created) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        int existing = indexOf(current.images(), image.getId());
+        if (existing < 0 && !created) {
+            return;
+        }
+        List<ImageEntity> images = new ArrayList<>(current.images());
+        long total = current.total();
+        if (existing >= 0) {
+            images.remove(existing);
+        } else {
+            total++;
+        }
+        int position = firstOlderThan(images, image.getUploadedAt(), image.getId());
+        if (position < capacity) {
+            images.add(position, image);
+        }
+        if (images.size() > capacity) {
+            images.remove(images.size() - 1);
+        }
+        snapshot = new Snapshot(List.copyOf(images), total);
+    }
+
+    private synchronized void remove(UUID imageId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        int existing = indexOf(current.images(), imageId);
+        if (existing < 0) {
+            // Older than the window; it may not even have been ready, so leave the total to resync.
+            return;
+        }
+        List<ImageEntity> images = new ArrayList<>(current.images());
+        images.remove(existing);
+        snapshot = new Snapshot(List.copyOf(images), current.total() - 1);
+    }
+
+    private static int indexOf(List<ImageEntity> images, UUID imageId) {
+        for (int i = 0; i < images.size(); i++) {
+            if (images.get(i).getId().equals(imageId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Index of the first image that sorts after {@code (uploadedAt, id)} in feed order.
+     */
+    private static int firstOlderThan(List<ImageEntity> images, Instant uploadedAt, UUID id) {
+        int low = 0;
+        int high = images.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (isNewer(images.get(mid), uploadedAt, id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isNewer(ImageEntity image, Instant uploadedAt, UUID id) {
+        int byTime = image.getUploadedAt().compareTo(uploadedAt);
+        return byTime > 0 || byTime == 0 && compareAsPostgres(image.getId(), id) >= 0;
+    }
+
+    /**
+     * PostgreSQL orders uuids by their unsigned bytes, unlike {@link UUID#compareTo}.
+     */
+    private static int compareAsPostgres(UUID left, UUID right) {
+        int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    /**
+     * @param total number of ready images overall, for offset pages
+     */
+    private record Snapshot(List<ImageEntity> images, long total) {
+
+        /**
+         * Whether the first {@code count} feed positions are known: either held in the window
+         * or past the end of the feed.
+         */
+        boolean covers(long count) {
+            return count <= images.size() || images.size() >= total;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.entity.ImageEntity;
+import com.innowise.image.entity.ImageVariant;
+import com.innowise.image.repository.ImageBlobRepository;
+import com.innowise.image.service.S3Service;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Reference-counted index from content digest to the S3 object holding that content. Both
+ * operations lock the blob row, so an upload that reuses a blob and a delete that drops its
+ * last reference cannot interleave. Images stored without a digest (presigned and legacy
+ * uploads) own their object outright.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageBlobRegistry {
+
+    private final ImageBlobRepository imageBlobRepository;
+    private final S3Service s3Service;
+    private final ImageContentCache imageContentCache;
+
+    /**
+     * Adds a reference to the blob with the given digest, registering {@code key} as its
+     * object when the content is new, and returns the key that holds the content.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String reference(String sha256, String key) {
+        imageBlobRepository.addReference(sha256, key);
+        return imageBlobRepository.findS3KeyBySha256(sha256);
+    }
+
+    /**
+     * Drops the image's reference. When nothing refers to the object any more, it and its
+     * variants are removed from S3 once the surrounding transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(ImageEntity image) {
+        if (image.getContentSha256() != null) {
+            imageBlobRepository.removeReference(image.getContentSha256());
+            if (imageBlobRepository.deleteIfUnreferenced(image.getContentSha256()) == 0) {
+                return;
+            }
+        }
+        String key = image.getS3Key();
+        if (key == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteObjects(key);
+            }
+        });
+    }
+
+    private void deleteObjects(String key) {
+        imageContentCache.evict(key);
+        try {
+            s3Service.delete(key);
+            for (ImageVariant variant : ImageVariant.values()) {
+                s3Service.delete(variant.keyFor(key));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete S3 objects for {}", key, e);
+        }
+    }
+}
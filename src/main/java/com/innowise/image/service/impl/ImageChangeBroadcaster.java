@@ -0,0 +1,81 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.KafkaTopics;
+import com.innowise.image.dto.ImageChangeEvent;
+import com.innowise.image.service.KafkaProducerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies image changes to the local {@link ImageChangeListener}s and broadcasts them to the
+ * other replicas over {@value KafkaTopics#IMAGE_CHANGES}. Every node reads the topic's single
+ * partition directly, without a consumer group, from the latest offset, so delivery is best
+ * effort; listeners bound their staleness on their own (e.g. with a TTL).
+ */
+@Slf4j
+@Component
+public class ImageChangeBroadcaster {
+
+    private final UUID nodeId = UUID.randomUUID();
+    private final KafkaProducerService kafkaProducerService;
+    private final List<ImageChangeListener> listeners;
+
+    ImageChangeBroadcaster(KafkaProducerService kafkaProducerService, List<ImageChangeListener> listeners) {
+        this.kafkaProducerService = kafkaProducerService;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Publishes once the current transaction commits, or immediately outside a transaction.
+     */
+    public void publishAfterCommit(UUID imageId, ImageChangeEvent.Type type) {
+        ImageChangeEvent event = new ImageChangeEvent(imageId, type, nodeId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(event);
+            }
+        });
+    }
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = KafkaTopics.IMAGE_CHANGES, partitions = "0"),
+            containerFactory = "imageChangeListenerContainerFactory")
+    public void onRemoteChange(ImageChangeEvent event) {
+        if (event == null || nodeId.equals(event.origin())) {
+            return;
+        }
+        dispatch(event);
+    }
+
+    private void publish(ImageChangeEvent event) {
+        dispatch(event);
+        kafkaProducerService.send(KafkaTopics.IMAGE_CHANGES, event.imageId().toString(), event)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.warn("Failed to broadcast {} of image {}", event.type(), event.imageId(), e);
+                    }
+                });
+    }
+
+    private void dispatch(ImageChangeEvent event) {
+        for (ImageChangeListener listener : listeners) {
+            try {
+                listener.onImageChange(event);
+            } catch (RuntimeException e) {
+                log.error("Image change listener {} failed for image {}",
+                        listener.getClass().getSimpleName(), event.imageId(), e);
+            }
+        }
+    }
+}
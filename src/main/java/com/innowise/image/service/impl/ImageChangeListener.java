@@ -0,0 +1,10 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.dto.ImageChangeEvent;
+
+/**
+ * Node-local state derived from image rows that must follow changes made on any replica.
+ */
+interface ImageChangeListener {
+    void onImageChange(ImageChangeEvent event);
+}
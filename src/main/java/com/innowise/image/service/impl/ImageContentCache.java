@@ -0,0 +1,142 @@
+package com.innowise.image.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.innowise.image.config.ImageContentCacheProperties;
+import com.innowise.image.config.S3Properties;
+import com.innowise.image.exception.NotFoundException;
+import com.innowise.image.exception.S3ReadException;
+import com.innowise.image.service.ImageContentService.ImageContent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local disk cache of S3 objects, bounded by total size and evicting the least recently used
+ * files first. Concurrent misses for the same key share a single S3 download. Evicted files are
+ * deleted after a short grace period so that responses already handed to the container for
+ * sendfile can still open them.
+ */
+@Slf4j
+@Component
+public class ImageContentCache {
+
+    private final S3Client s3Client;
+    private final S3Properties s3Properties;
+    private final Path directory;
+    private final Executor deleteExecutor;
+    private final AsyncCache<String, ImageContent> cache;
+
+    public ImageContentCache(S3Client s3Client, S3Properties s3Properties, ImageContentCacheProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.s3Client = s3Client;
+        this.s3Properties = s3Properties;
+        this.directory = prepareDirectory(properties.directory());
+        this.deleteExecutor = CompletableFuture.delayedExecutor(
+                properties.deleteGrace().toMillis(), TimeUnit.MILLISECONDS);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.maxSize().toBytes())
+                .weigher((String key, ImageContent content) -> (int) Math.min(content.length(), Integer.MAX_VALUE))
+                .removalListener((String key, ImageContent content, RemovalCause cause) -> {
+                    if (content != null) {
+                        deleteExecutor.execute(() -> deleteQuietly(content.path()));
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "image-content");
+    }
+
+    public ImageContent get(String key) {
+        CompletableFuture<ImageContent> download = new CompletableFuture<>();
+        CompletableFuture<ImageContent> cached = cache.get(key, (k, executor) -> download);
+        if (cached == download) {
+            try {
+                download.complete(fetch(key));
+            } catch (RuntimeException e) {
+                download.completeExceptionally(e);
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public void evict(String key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    private ImageContent fetch(String key) {
+        String name = UUID.randomUUID().toString();
+        Path target = directory.resolve(name + ".blob");
+        Path partial = directory.resolve(name + ".part");
+        try {
+            GetObjectResponse response = s3Client.getObject(GetObjectRequest.builder()
+                            .bucket(s3Properties.bucket())
+                            .key(key)
+                            .build(),
+                    ResponseTransformer.toFile(partial));
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            return new ImageContent(target, Files.size(target), response.contentType(), strongETag(response.eTag(), key));
+        } catch (NoSuchKeyException e) {
+            deleteQuietly(partial);
+            throw new NotFoundException("Image content not found: " + key);
+        } catch (S3Exception e) {
+            deleteQuietly(partial);
+            throw new S3ReadException("Failed to read image content " + key + ": " + e.getMessage());
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            deleteQuietly(target);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String strongETag(String eTag, String key) {
+        if (eTag == null || eTag.isBlank()) {
+            return "\"" + UUID.nameUUIDFromBytes(key.getBytes()) + "\"";
+        }
+        return eTag.startsWith("\"") ? eTag : "\"" + eTag + "\"";
+    }
+
+    private static Path prepareDirectory(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "*.{blob,part}")) {
+                leftovers.forEach(ImageContentCache::deleteQuietly);
+            }
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare content cache directory " + directory, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached file {}", path, e);
+        }
+    }
+}
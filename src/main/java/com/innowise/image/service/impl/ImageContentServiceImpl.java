@@ -0,0 +1,28 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.entity.ImageEntity;
+import com.innowise.image.entity.ImageStatus;
+import com.innowise.image.exception.NotFoundException;
+import com.innowise.image.repository.ImageRepository;
+import com.innowise.image.service.ImageContentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ImageContentServiceImpl implements ImageContentService {
+
+    private final ImageRepository imageRepository;
+    private final ImageContentCache imageContentCache;
+
+    @Override
+    public ImageContent getContent(UUID imageId) {
+        String key = imageRepository.findById(imageId)
+                .filter(image -> image.getStatus() == ImageStatus.READY)
+                .map(ImageEntity::getS3Key)
+                .orElseThrow(() -> new NotFoundException("Image not found with id: " + imageId));
+        return imageContentCache.get(key);
+    }
+}
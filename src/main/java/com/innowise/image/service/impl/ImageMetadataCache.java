@@ -0,0 +1,109 @@
+package com.innowise.image.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.innowise.image.config.ImageMetadataCacheProperties;
+import com.innowise.image.dto.ImageChangeEvent;
+import com.innowise.image.dto.ImageDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of ready images' metadata, bounded by the estimated heap footprint of its
+ * entries. Cached DTOs are shared between requests and must not be modified.
+ * Entries are dropped through {@link ImageChangeBroadcaster} when a replica changes an image,
+ * and expire after {@code images.metadata-cache.ttl} in case a broadcast is missed.
+ */
+@Component
+public class ImageMetadataCache implements ImageChangeListener {
+
+    private static final String CACHE_NAME = "image-metadata";
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final int MAP_ENTRY_OVERHEAD_BYTES = 64;
+
+    private final Cache<UUID, CachedImage> cache;
+
+    public ImageMetadataCache(ImageMetadataCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.maxSize().toBytes())
+                .weigher((UUID id, CachedImage entry) -> weigh(entry.image()))
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @param loader loads the entry on a miss, returning {@code null} when the image does not
+     *               exist; misses are not cached
+     */
+    public CachedImage get(UUID imageId, Function<UUID, CachedImage> loader) {
+        return cache.get(imageId, loader);
+    }
+
+    public void invalidate(UUID imageId) {
+        cache.invalidate(imageId);
+    }
+
+    @Override
+    public void onImageChange(ImageChangeEvent event) {
+        invalidate(event.imageId());
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public long weightedSize() {
+        return eviction().weightedSize().orElse(0);
+    }
+
+    public long maximumWeight() {
+        return eviction().getMaximum();
+    }
+
+    /**
+     * Most frequently used entries first, as ranked by the eviction policy.
+     */
+    public Map<UUID, CachedImage> hottest(int limit) {
+        return eviction().hottest(limit);
+    }
+
+    private Policy.Eviction<UUID, CachedImage> eviction() {
+        return cache.policy().eviction().orElseThrow();
+    }
+
+    static int weigh(ImageDto image) {
+        long bytes = ENTRY_OVERHEAD_BYTES
+                + chars(image.getUrl())
+                + chars(image.getDescription())
+                + chars(image.getAuthorName());
+        if (image.getVariantUrls() != null) {
+            for (Map.Entry<String, String> variant : image.getVariantUrls().entrySet()) {
+                bytes += MAP_ENTRY_OVERHEAD_BYTES + chars(variant.getKey()) + chars(variant.getValue());
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long chars(String value) {
+        return value != null ? 2L * value.length() : 0;
+    }
+
+    /**
+     * @param version the image's {@code updated_at}, used as its HTTP validator
+     */
+    public record CachedImage(ImageDto image, Instant version) {}
+}
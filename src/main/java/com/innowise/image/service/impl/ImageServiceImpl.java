@@ -1,32 +1,69 @@
 package com.innowise.image.service.impl;
 
+import com.innowise.image.dto.CursorPageResponseDto;
+import com.innowise.image.dto.ImageChangeEvent;
 import com.innowise.image.dto.ImageDto;
+import com.innowise.image.dto.KeysetCursor;
+import com.innowise.image.dto.PresignedUploadDto;
+import com.innowise.image.dto.PresignedUploadRequestDto;
 import com.innowise.image.dto.UploadResponseDto;
 import com.innowise.image.entity.ImageEntity;
+import com.innowise.image.entity.ImageStatus;
+import com.innowise.image.entity.ImageVariant;
+import com.innowise.image.exception.ConflictException;
+import com.innowise.image.exception.ForbiddenException;
 import com.innowise.image.exception.NotFoundException;
+import com.innowise.image.mapper.ImageMapper;
+import com.innowise.image.repository.CommentRepository;
 import com.innowise.image.repository.ImageRepository;
+import com.innowise.image.repository.LikeRepository;
 import com.innowise.image.service.ImageService;
+import com.innowise.image.service.S3Service;
+import com.innowise.image.service.impl.ImageMetadataCache.CachedImage;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class ImageServiceImpl implements ImageService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final ImageRepository imageRepository;
-    private final ModelMapper modelMapper;
+    private final ImageMapper imageMapper;
     private final S3Client s3Client;
+    private final S3StreamingUploader s3StreamingUploader;
+    private final S3AsyncUploader s3AsyncUploader;
+    private final S3Service s3Service;
+    private final ImageVariantGenerator imageVariantGenerator;
+    private final ImageBlobRegistry imageBlobRegistry;
+    private final ImageMetadataCache imageMetadataCache;
+    private final ImageChangeBroadcaster imageChangeBroadcaster;
+    private final HotFeedWindow hotFeedWindow;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${s3.bucket}")
     private String s3Bucket;
@@ -34,9 +71,13 @@ public class ImageServiceImpl implements ImageService {
     @Value("${s3.external-url:http://localhost:4566}")
     private String s3ExternalUrl;
 
+    @Value("${s3.upload.presign-ttl:15m}")
+    private Duration presignTtl;
+
     @Override
     public UploadResponseDto uploadImage(MultipartFile file, UUID userId, String description) throws IOException {
         String key = UUID.randomUUID() + "-" + file.getOriginalFilename();
+        DigestInputStream content = ContentDigest.sha256(file.getInputStream());
 
         s3Client.putObject(
                 PutObjectRequest.builder()
@@ -45,19 +86,119 @@ public class ImageServiceImpl implements ImageService {
                         .contentType(file.getContentType())
                         .checksumAlgorithm((String) null)
                         .build(),
-                software.amazon.awssdk.core.sync.RequestBody.fromInputStream(file.getInputStream(), file.getSize())
+                software.amazon.awssdk.core.sync.RequestBody.fromInputStream(content, file.getSize())
         );
 
-        String fileUrl = generateExternalImageUrl(key);
+        return saveImage(key, ContentDigest.hex(content), userId, description);
+    }
+
+    @Override
+    public UploadResponseDto uploadImageStream(InputStream content, String filename, String contentType,
+                                               UUID userId, String description) throws IOException {
+        String key = UUID.randomUUID() + "-" + filename;
+        DigestInputStream digested = ContentDigest.sha256(content);
+        s3StreamingUploader.upload(key, contentType, digested);
+        return saveImage(key, ContentDigest.hex(digested), userId, description);
+    }
+
+    @Override
+    public CompletableFuture<UploadResponseDto> uploadImageAsync(MultipartFile file, UUID userId, String description)
+            throws IOException {
+        String key = UUID.randomUUID() + "-" + file.getOriginalFilename();
+        Path staged = Path.of(System.getProperty("java.io.tmpdir"), "async-upload-" + UUID.randomUUID());
+        file.transferTo(staged.toFile());
+        return s3AsyncUploader.upload(key, file.getContentType(), staged)
+                .thenApply(sha256 -> saveImage(key, sha256, userId, description));
+    }
 
+    @Override
+    public PresignedUploadDto createPresignedUpload(PresignedUploadRequestDto request, UUID userId) {
+        String key = UUID.randomUUID() + "-" + request.getFilename();
         ImageEntity image = ImageEntity.builder()
-                .url(fileUrl)
-                .description(description)
+                .url(generateExternalImageUrl(key))
+                .s3Key(key)
+                .status(ImageStatus.PENDING)
+                .description(request.getDescription())
                 .uploadedAt(Instant.now())
                 .userId(userId)
                 .build();
         imageRepository.save(image);
 
+        S3Service.PresignedUpload presigned = s3Service.presignUpload(key, request.getContentType());
+        return PresignedUploadDto.builder()
+                .id(image.getId())
+                .uploadUrl(presigned.url())
+                .expiresAt(presigned.expiresAt())
+                .build();
+    }
+
+    @Override
+    public UploadResponseDto confirmUpload(UUID imageId, UUID userId) {
+        ImageEntity image = imageRepository.findById(imageId)
+                .orElseThrow(() -> new NotFoundException("Image not found with id: " + imageId));
+        if (!image.getUserId().equals(userId)) {
+            throw new ForbiddenException("Access denied");
+        }
+        if (image.getStatus() == ImageStatus.PENDING) {
+            Instant now = Instant.now();
+            Instant notBefore = now.minus(presignTtl);
+            if (image.getUploadedAt().isBefore(notBefore)) {
+                throw new ConflictException("Upload has expired");
+            }
+            if (!s3Service.exists(image.getS3Key())) {
+                throw new ConflictException("Image content has not been uploaded yet");
+            }
+            // A concurrent confirmation may have won; only the one that flipped the status
+            // announces the image and starts variant generation.
+            if (imageRepository.markReady(imageId, now, notBefore) == 1) {
+                imageChangeBroadcaster.publishAfterCommit(imageId, ImageChangeEvent.Type.CREATED);
+                imageVariantGenerator.generateAsync(imageId, image.getS3Key());
+            }
+        }
+        return toUploadResponse(image);
+    }
+
+    /**
+     * Records an image whose content was just written under {@code key}. When identical content
+     * is already stored, the image points at that object instead and the fresh copy is removed.
+     * When the image cannot be recorded, the fresh copy is removed as well rather than orphaned.
+     */
+    private UploadResponseDto saveImage(String key, String sha256, UUID userId, String description) {
+        ImageEntity image;
+        try {
+            image = transactionTemplate.execute(status -> {
+                String blobKey = imageBlobRegistry.reference(sha256, key);
+                ImageEntity entity = ImageEntity.builder()
+                        .url(generateExternalImageUrl(blobKey))
+                        .s3Key(blobKey)
+                        .contentSha256(sha256)
+                        .variantsReady(!blobKey.equals(key) && imageRepository.existsByS3KeyAndVariantsReadyTrue(blobKey))
+                        .description(description)
+                        .uploadedAt(Instant.now())
+                        .userId(userId)
+                        .build();
+                imageRepository.save(entity);
+                return entity;
+            });
+        } catch (RuntimeException e) {
+            try {
+                s3Service.delete(key);
+            } catch (RuntimeException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            throw e;
+        }
+        imageChangeBroadcaster.publishAfterCommit(image.getId(), ImageChangeEvent.Type.CREATED);
+        if (!image.getS3Key().equals(key)) {
+            s3Service.delete(key);
+        }
+        if (!image.isVariantsReady()) {
+            imageVariantGenerator.generateAsync(image.getId(), image.getS3Key());
+        }
+        return toUploadResponse(image);
+    }
+
+    private UploadResponseDto toUploadResponse(ImageEntity image) {
         UploadResponseDto response = new UploadResponseDto();
         response.setId(image.getId());
         response.setUrl(image.getUrl());
@@ -68,22 +209,123 @@ public class ImageServiceImpl implements ImageService {
         return s3ExternalUrl + "/images/" + key;
     }
 
+    private ImageDto toDto(ImageEntity image) {
+        ImageDto dto = imageMapper.toDto(image);
+        if (image.isVariantsReady() && image.getS3Key() != null) {
+            Map<String, String> variantUrls = new LinkedHashMap<>();
+            for (ImageVariant variant : ImageVariant.values()) {
+                variantUrls.put(variant.id(), generateExternalImageUrl(variant.keyFor(image.getS3Key())));
+            }
+            dto.setVariantUrls(variantUrls);
+        }
+        return dto;
+    }
+
     @Override
     public ImageDto getImage(UUID id) {
-        ImageEntity image = imageRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Image not found with id: " + id));
-        return modelMapper.map(image, ImageDto.class);
+        return cachedImage(id).image();
+    }
+
+    @Override
+    public Instant getImageVersion(UUID id) {
+        return cachedImage(id).version();
+    }
+
+    private CachedImage cachedImage(UUID id) {
+        CachedImage cached = imageMetadataCache.get(id, this::loadReadyImage);
+        if (cached == null) {
+            throw new NotFoundException("Image not found with id: " + id);
+        }
+        return cached;
+    }
+
+    private CachedImage loadReadyImage(UUID id) {
+        return imageRepository.findById(id)
+                .filter(found -> found.getStatus() == ImageStatus.READY)
+                .map(image -> new CachedImage(toDto(image), image.getUpdatedAt()))
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public void deleteImage(UUID imageId, UUID userId) {
+        ImageEntity image = imageRepository.findById(imageId)
+                .orElseThrow(() -> new NotFoundException("Image not found with id: " + imageId));
+        if (!image.getUserId().equals(userId)) {
+            throw new ForbiddenException("Access denied");
+        }
+        likeRepository.deleteByImageId(imageId);
+        commentRepository.deleteByImageId(imageId);
+        if (imageRepository.deleteImageById(imageId) == 0) {
+            throw new NotFoundException("Image not found with id: " + imageId);
+        }
+        imageBlobRegistry.release(image);
+        imageChangeBroadcaster.publishAfterCommit(imageId, ImageChangeEvent.Type.DELETED);
     }
 
     @Override
     public Page<ImageDto> getUserImages(UUID userId, Pageable pageable) {
         return imageRepository.findByUserIdOrderByUploadedAtDesc(userId, pageable)
-                .map(img -> modelMapper.map(img, ImageDto.class));
+                .map(this::toDto);
     }
 
     @Override
     public Page<ImageDto> getAllImages(Pageable pageable) {
-        return imageRepository.findAllByOrderByUploadedAtDesc(pageable)
-                .map(img -> modelMapper.map(img, ImageDto.class));
+        return hotFeedWindow.page(pageable)
+                .orElseGet(() -> imageRepository.findAllByOrderByUploadedAtDesc(pageable))
+                .map(this::toDto);
+    }
+
+    @Override
+    public CursorPageResponseDto<ImageDto> getUserImages(UUID userId, String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<ImageEntity> images = isFirstPage(cursor)
+                ? imageRepository.findByUserIdOrderByUploadedAtDescIdDesc(userId, limit)
+                : seekUserImages(userId, KeysetCursor.decode(cursor), limit);
+        return toCursorPage(images, pageSize);
+    }
+
+    @Override
+    public CursorPageResponseDto<ImageDto> getAllImages(String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        KeysetCursor after = isFirstPage(cursor) ? null : KeysetCursor.decode(cursor);
+        List<ImageEntity> images = hotFeedWindow.newest(after, pageSize + 1)
+                .orElseGet(() -> after == null
+                        ? imageRepository.findAllByOrderByUploadedAtDescIdDesc(Limit.of(pageSize + 1))
+                        : seekAllImages(after, Limit.of(pageSize + 1)));
+        return toCursorPage(images, pageSize);
+    }
+
+    private List<ImageEntity> seekUserImages(UUID userId, KeysetCursor cursor, Limit limit) {
+        return imageRepository.findUserPageAfter(userId, cursor.timestamp(), cursor.id(), limit);
+    }
+
+    private List<ImageEntity> seekAllImages(KeysetCursor cursor, Limit limit) {
+        return imageRepository.findPageAfter(cursor.timestamp(), cursor.id(), limit);
+    }
+
+    private CursorPageResponseDto<ImageDto> toCursorPage(List<ImageEntity> images, int pageSize) {
+        boolean last = images.size() <= pageSize;
+        List<ImageEntity> page = last ? images : images.subList(0, pageSize);
+        String nextCursor = null;
+        if (!last) {
+            ImageEntity tail = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(tail.getUploadedAt(), tail.getId()).encode();
+        }
+        return CursorPageResponseDto.<ImageDto>builder()
+                .content(page.stream().map(this::toDto).toList())
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .last(last)
+                .build();
+    }
+
+    private static boolean isFirstPage(String cursor) {
+        return cursor == null || cursor.isBlank();
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
     }
-}
\ No newline at end of file
+}
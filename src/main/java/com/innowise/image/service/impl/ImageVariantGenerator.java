@@ -0,0 +1,219 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.ImageVariantProperties;
+import com.innowise.image.config.S3Properties;
+import com.innowise.image.dto.ImageChangeEvent;
+import com.innowise.image.entity.ImageVariant;
+import com.innowise.image.repository.ImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces the resized {@link ImageVariant}s of an uploaded original on a bounded worker pool.
+ * Decoding and scaling use plain ImageIO/Java2D; variants are written as JPEG next to the
+ * original object and the image row is flagged once all of them exist.
+ */
+@Slf4j
+@Component
+public class ImageVariantGenerator {
+
+    private final S3Client s3Client;
+    private final S3Properties s3Properties;
+    private final ImageRepository imageRepository;
+    private final ImageChangeBroadcaster imageChangeBroadcaster;
+    private final ImageVariantProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<ImageVariant, Timer> variantTimers = new EnumMap<>(ImageVariant.class);
+    private final Counter failures;
+    private final Counter rejections;
+
+    public ImageVariantGenerator(S3Client s3Client,
+                                 S3Properties s3Properties,
+                                 ImageRepository imageRepository,
+                                 ImageChangeBroadcaster imageChangeBroadcaster,
+                                 ImageVariantProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.s3Client = s3Client;
+        this.s3Properties = s3Properties;
+        this.imageRepository = imageRepository;
+        this.imageChangeBroadcaster = imageChangeBroadcaster;
+        this.properties = properties;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.workerThreads(), properties.workerThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.queueCapacity()), r -> {
+            Thread thread = new Thread(r, "image-variants-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("images.variants.queue.depth", executor, e -> e.getQueue().size())
+                .description("Images waiting for variant generation")
+                .register(meterRegistry);
+        for (ImageVariant variant : ImageVariant.values()) {
+            variantTimers.put(variant, Timer.builder("images.variants.generate")
+                    .description("Time to scale, encode and store one image variant")
+                    .tag("variant", variant.id())
+                    .register(meterRegistry));
+        }
+        this.failures = Counter.builder("images.variants.failures").register(meterRegistry);
+        this.rejections = Counter.builder("images.variants.rejected")
+                .description("Variant jobs dropped because the queue was full")
+                .register(meterRegistry);
+
+        ImageIO.setUseCache(false);
+    }
+
+    public void generateAsync(UUID imageId, String originalKey) {
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(imageId, originalKey);
+                } catch (Exception e) {
+                    failures.increment();
+                    log.error("Variant generation failed for image {}", imageId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            log.warn("Variant queue full, skipping variants for image {}", imageId);
+        }
+    }
+
+    void generate(UUID imageId, String originalKey) throws IOException {
+        BufferedImage original = readOriginal(originalKey);
+        if (original == null) {
+            log.warn("Image {} is not in a decodable format, no variants generated", imageId);
+            return;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            Timer.Sample sample = Timer.start();
+            byte[] encoded = encodeJpeg(scale(original, variant.maxEdge()));
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(s3Properties.bucket())
+                            .key(variant.keyFor(originalKey))
+                            .contentType("image/jpeg")
+                            .build(),
+                    RequestBody.fromBytes(encoded));
+            sample.stop(variantTimers.get(variant));
+        }
+        imageRepository.markVariantsReady(imageId);
+        imageChangeBroadcaster.publishAfterCommit(imageId, ImageChangeEvent.Type.UPDATED);
+    }
+
+    private BufferedImage readOriginal(String key) throws IOException {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(s3Properties.bucket())
+                .key(key)
+                .build();
+        try (ResponseInputStream<GetObjectResponse> body = s3Client.getObject(request);
+             ImageInputStream input = ImageIO.createImageInputStream(body)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > properties.maxSourcePixels()) {
+                    throw new IOException("Source image too large: " + pixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Downscales in repeated halving steps before the final bilinear pass, which keeps
+     * quality close to bicubic at a fraction of the cost.
+     */
+    static BufferedImage scale(BufferedImage source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            current = draw(current, currentWidth, currentHeight);
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.jpegQuality());
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,50 +1,104 @@
 package com.innowise.image.service.impl;
 
-import com.innowise.common.dto.event.CommentEventDto;
-import com.innowise.common.dto.event.LikeEventDto;
 import com.innowise.image.service.KafkaProducerService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
-@Service
-@RequiredArgsConstructor
+/**
+ * Sends events with a bound on how many may be awaiting acknowledgement at once. Beyond the bound
+ * a send fails immediately with {@link RejectedExecutionException} instead of queueing in the
+ * producer buffer; the outbox relay leaves such events in the table and retries them later.
+ * Send latency and outcomes are recorded per topic.
+ */
 @Slf4j
+@Service
 public class KafkaProducerServiceImpl implements KafkaProducerService {
 
-    private static final String LIKE_TOPIC = "image-like-events";
-    private static final String COMMENT_TOPIC = "image-comment-events";
-
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+    private final Map<String, TopicMeters> topicMeters = new ConcurrentHashMap<>();
+
+    public KafkaProducerServiceImpl(KafkaTemplate<String, Object> kafkaTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${kafka.producer.max-in-flight:10000}") int maxInFlight) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxInFlight);
+        meterRegistry.gauge("kafka.producer.in.flight", inFlight, permits -> maxInFlight - permits.availablePermits());
+    }
+
+    @Override
+    public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object event) {
+        TopicMeters meters = topicMeters.computeIfAbsent(topic, this::registerMeters);
+        if (!inFlight.tryAcquire()) {
+            meters.rejected().increment();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Too many Kafka sends in flight, event to " + topic + " deferred"));
+        }
 
-    public void sendLikeEvent(UUID userId, UUID imageId, boolean isAdded) {
-        LikeEventDto event = new LikeEventDto(userId, imageId, isAdded);
-
-        kafkaTemplate.send(LIKE_TOPIC, userId.toString(), event)
-                .whenComplete((result, ex) -> {
-                    if (ex == null) {
-                        log.info("Like event sent: {} for user {} on image {}",
-                                isAdded ? "ADDED" : "REMOVED", userId, imageId);
-                    } else {
-                        log.error("Failed to send like event: {}", ex.getMessage(), ex);
-                    }
-                });
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(topic, key, event);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            sample.stop(meters.failureTimer());
+            meters.failed().increment();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, ex) -> {
+            inFlight.release();
+            if (ex == null) {
+                sample.stop(meters.successTimer());
+                meters.succeeded().increment();
+                log.debug("Event sent to {} with key {}", topic, key);
+            } else {
+                sample.stop(meters.failureTimer());
+                meters.failed().increment();
+                log.error("Failed to send event to {}: {}", topic, ex.getMessage(), ex);
+            }
+        });
     }
 
-    public void sendCommentEvent(UUID userId, UUID imageId, UUID commentId, String content, boolean isCreated) {
-        CommentEventDto event = new CommentEventDto(userId, imageId, commentId, isCreated, content);
-
-        kafkaTemplate.send(COMMENT_TOPIC, userId.toString(), event)
-                .whenComplete((result, ex) -> {
-                    if (ex == null) {
-                        log.info("Comment event sent: {} for user {} on image {}",
-                                isCreated ? "CREATED" : "DELETED", userId, imageId);
-                    } else {
-                        log.error("Failed to send comment event: {}", ex.getMessage(), ex);
-                    }
-                });
+    private TopicMeters registerMeters(String topic) {
+        return new TopicMeters(
+                sendTimer(topic, "success"),
+                sendTimer(topic, "failure"),
+                eventCounter(topic, "success"),
+                eventCounter(topic, "failure"),
+                eventCounter(topic, "rejected"));
     }
+
+    private Timer sendTimer(String topic, String result) {
+        return Timer.builder("kafka.producer.send")
+                .description("Time from send to broker acknowledgement")
+                .tag("topic", topic)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private Counter eventCounter(String topic, String result) {
+        return Counter.builder("kafka.producer.events")
+                .tag("topic", topic)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record TopicMeters(Timer successTimer, Timer failureTimer,
+                               Counter succeeded, Counter failed, Counter rejected) {}
 }
@@ -0,0 +1,164 @@
+package com.innowise.image.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for {@code images.likes_count}. Like toggles only bump a striped
+ * in-memory cell; pending deltas are flushed to Postgres in one JDBC batch on a fixed
+ * interval, as soon as a single image crosses the delta threshold, and on shutdown.
+ *
+ * <p>Cells live in generations: a flush swaps in a fresh map and drains the swapped-out one
+ * together with the generation before it, so increments that raced with the swap are
+ * picked up by the following flush instead of being lost.
+ */
+@Slf4j
+@Component
+public class LikeCountAggregator {
+
+    private static final String FLUSH_SQL =
+            "UPDATE gallery.images SET likes_count = likes_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long flushThreshold;
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "like-count-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private final Map<UUID, Long> inFlight = new ConcurrentHashMap<>();
+
+    private volatile Map<UUID, LongAdder> current = new ConcurrentHashMap<>();
+    private volatile Map<UUID, LongAdder> previous = new ConcurrentHashMap<>();
+
+    public LikeCountAggregator(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${likes.aggregator.flush-threshold:100}") long flushThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushThreshold = flushThreshold;
+    }
+
+    /**
+     * Records a like delta once the surrounding transaction commits, so rolled back toggles
+     * never reach the counter.
+     */
+    public void recordAfterCommit(UUID imageId, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(imageId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(imageId, delta);
+            }
+        });
+    }
+
+    public void record(UUID imageId, long delta) {
+        LongAdder cell = current.computeIfAbsent(imageId, id -> new LongAdder());
+        cell.add(delta);
+        if (Math.abs(cell.sum()) >= flushThreshold) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Delta recorded on this node that is not yet visible in {@code images.likes_count}.
+     */
+    public long pendingDelta(UUID imageId) {
+        return sum(current, imageId) + sum(previous, imageId) + inFlight.getOrDefault(imageId, 0L);
+    }
+
+    @Scheduled(fixedDelayString = "${likes.aggregator.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<UUID, LongAdder> generation = current;
+            current = new ConcurrentHashMap<>();
+
+            Map<UUID, Long> deltas = new HashMap<>();
+            drain(previous, deltas);
+            drain(generation, deltas);
+            previous = generation;
+
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                List<Object[]> batch = new ArrayList<>(deltas.size());
+                deltas.forEach((imageId, delta) -> batch.add(new Object[]{delta, imageId}));
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+                deltas.forEach(this::release);
+            } catch (RuntimeException e) {
+                log.error("Failed to flush like counts for {} images, keeping deltas pending", deltas.size(), e);
+                deltas.forEach((imageId, delta) -> {
+                    release(imageId, delta);
+                    record(imageId, delta);
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+        flush();
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushRequested.set(false);
+                }
+            });
+        }
+    }
+
+    private void drain(Map<UUID, LongAdder> generation, Map<UUID, Long> deltas) {
+        generation.forEach((imageId, cell) -> {
+            long delta = cell.sum();
+            if (delta != 0) {
+                inFlight.merge(imageId, delta, Long::sum);
+                cell.add(-delta);
+                deltas.merge(imageId, delta, Long::sum);
+            }
+        });
+    }
+
+    private void release(UUID imageId, long delta) {
+        inFlight.computeIfPresent(imageId, (id, pending) -> pending - delta == 0 ? null : pending - delta);
+    }
+
+    private static long sum(Map<UUID, LongAdder> generation, UUID imageId) {
+        LongAdder cell = generation.get(imageId);
+        return cell == null ? 0L : cell.sum();
+    }
+}
@@ -1,15 +1,22 @@
 package com.innowise.image.service.impl;
 
+import com.innowise.image.dto.ImageLikesDto;
 import com.innowise.image.entity.LikeEntity;
+import com.innowise.image.repository.ImageCount;
+import com.innowise.image.repository.ImageRepository;
 import com.innowise.image.repository.LikeRepository;
-import com.innowise.image.service.KafkaProducerService;
 import com.innowise.image.service.LikeService;
+import com.innowise.image.service.OutboxService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PathVariable;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -18,14 +25,17 @@ import java.util.UUID;
 public class LikeServiceImpl implements LikeService {
 
     private final LikeRepository likeRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final ImageRepository imageRepository;
+    private final LikeCountAggregator likeCountAggregator;
+    private final OutboxService outboxService;
 
     @Override
     public void toggleLike(UUID imageId, UUID userId) {
         LikeEntity existing = likeRepository.findByImageIdAndUserId(imageId, userId).orElse(null);
         if (existing != null) {
             likeRepository.delete(existing);
-            kafkaProducerService.sendLikeEvent(userId, imageId, false);
+            likeCountAggregator.recordAfterCommit(imageId, -1);
+            outboxService.enqueueLikeEvent(userId, imageId, false);
         } else {
             LikeEntity like = LikeEntity.builder()
                     .imageId(imageId)
@@ -33,12 +43,36 @@ public class LikeServiceImpl implements LikeService {
                     .createdAt(Instant.now())
                     .build();
             likeRepository.save(like);
-            kafkaProducerService.sendLikeEvent(userId, imageId, true);
+            likeCountAggregator.recordAfterCommit(imageId, 1);
+            outboxService.enqueueLikeEvent(userId, imageId, true);
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int countLikes(@PathVariable("id") UUID imageId) {
-        return likeRepository.countByImageId(imageId);
+        int persisted = imageRepository.findLikesCountById(imageId).orElse(0);
+        return (int) Math.max(0, persisted + likeCountAggregator.pendingDelta(imageId));
     }
-}
\ No newline at end of file
+
+    /**
+     * Like counts and the caller's likes for a page of images, in two queries. Counts come from
+     * the denormalized {@code likes_count} plus deltas still buffered on this node, like
+     * {@link #countLikes}. Unknown images are left out.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, ImageLikesDto> getLikes(Collection<UUID> imageIds, UUID userId) {
+        if (imageIds.isEmpty()) {
+            return Map.of();
+        }
+        Set<UUID> liked = likeRepository.findLikedImageIds(userId, imageIds);
+        Map<UUID, ImageLikesDto> likes = new LinkedHashMap<>();
+        for (ImageCount count : imageRepository.findLikesCounts(imageIds)) {
+            UUID imageId = count.getImageId();
+            int likesCount = (int) Math.max(0, count.getTotal() + likeCountAggregator.pendingDelta(imageId));
+            likes.put(imageId, new ImageLikesDto(likesCount, liked.contains(imageId)));
+        }
+        return likes;
+    }
+}
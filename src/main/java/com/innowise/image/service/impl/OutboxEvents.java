@@ -0,0 +1,68 @@
+package com.innowise.image.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.innowise.common.dto.event.CommentEventDto;
+import com.innowise.common.dto.event.LikeEventDto;
+import com.innowise.image.entity.OutboxEventType;
+
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Payload format of outbox rows. Events are stored as plain field maps and rebuilt through the
+ * event constructors at relay time, so the outbox does not depend on how the shared event
+ * classes bind to JSON.
+ */
+final class OutboxEvents {
+
+    private OutboxEvents() {
+    }
+
+    static String likePayload(ObjectMapper objectMapper, UUID userId, UUID imageId, boolean isAdded) {
+        ObjectNode node = objectMapper.createObjectNode()
+                .put("userId", userId.toString())
+                .put("imageId", imageId.toString())
+                .put("added", isAdded);
+        return node.toString();
+    }
+
+    /**
+     * Like toggles for one user and image strictly alternate between added and removed, so any
+     * run of them nets out to either nothing or the last event of the run.
+     */
+    static String likeCoalesceKey(UUID userId, UUID imageId) {
+        return "like:" + userId + ":" + imageId;
+    }
+
+    static String commentPayload(ObjectMapper objectMapper, UUID userId, UUID imageId, UUID commentId,
+                                 String content, boolean isCreated) {
+        ObjectNode node = objectMapper.createObjectNode()
+                .put("userId", userId.toString())
+                .put("imageId", imageId.toString())
+                .put("commentId", commentId.toString())
+                .put("content", content)
+                .put("created", isCreated);
+        return node.toString();
+    }
+
+    static Object toEvent(ObjectMapper objectMapper, OutboxEventType type, String payload) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return switch (type) {
+            case LIKE -> new LikeEventDto(uuid(node, "userId"), uuid(node, "imageId"), node.path("added").asBoolean());
+            case COMMENT -> new CommentEventDto(uuid(node, "userId"), uuid(node, "imageId"), uuid(node, "commentId"),
+                    node.path("created").asBoolean(), node.path("content").textValue());
+        };
+    }
+
+    private static UUID uuid(JsonNode node, String field) {
+        return UUID.fromString(node.path(field).asText());
+    }
+}
@@ -0,0 +1,201 @@
+package com.innowise.image.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.image.entity.OutboxEventType;
+import com.innowise.image.job.ClusterJobLock;
+import com.innowise.image.service.KafkaProducerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox rows to Kafka. Only one replica relays at a time, under a
+ * {@link ClusterJobLock}, so rows reach Kafka in id order and events for the same key are never
+ * published concurrently by two relays. A row that is not acknowledged holds back the later
+ * rows of its key in the batch, so a retry cannot overtake them. All sends of a batch are issued before any
+ * acknowledgement is awaited, without holding a transaction or row locks, and the acknowledged
+ * rows are removed with one statement. Rows whose send failed stay in the table and are retried
+ * by a later run, which makes delivery at-least-once.
+ * <p>
+ * Rows carrying a coalesce key are held back until the oldest pending row of their key is older
+ * than the coalescing window; from then on every row of that key is selected together, so
+ * toggles landing anywhere inside the window meet in one batch. Rows of a batch sharing a key
+ * are then reduced to their net effect: an odd run publishes only its last event, and an even
+ * run cancels out and is deleted without publishing anything.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final String SELECT_BATCH =
+            "SELECT id, topic, event_key, event_type, payload, coalesce_key FROM gallery.outbox_events o " +
+            "WHERE o.coalesce_key IS NULL OR EXISTS (" +
+            "    SELECT 1 FROM gallery.outbox_events oldest " +
+            "    WHERE oldest.coalesce_key = o.coalesce_key AND oldest.created_at <= ?) " +
+            "ORDER BY o.id LIMIT ?";
+    private static final String DELETE_BATCH = "DELETE FROM gallery.outbox_events WHERE id = ANY(?)";
+
+    private static final RowMapper<OutboxRow> ROW_MAPPER = (rs, rowNum) -> new OutboxRow(
+            rs.getLong("id"),
+            rs.getString("topic"),
+            rs.getString("event_key"),
+            OutboxEventType.valueOf(rs.getString("event_type")),
+            rs.getString("payload"),
+            rs.getString("coalesce_key"));
+
+    private static final String JOB_NAME = "outbox-relay";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterJobLock clusterJobLock;
+    private final KafkaProducerService kafkaProducerService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration coalesceWindow;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       ClusterJobLock clusterJobLock,
+                       KafkaProducerService kafkaProducerService,
+                       ObjectMapper objectMapper,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.send-timeout:10s}") Duration sendTimeout,
+                       @Value("${outbox.relay.coalesce-window:1s}") Duration coalesceWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clusterJobLock = clusterJobLock;
+        this.kafkaProducerService = kafkaProducerService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.coalesceWindow = coalesceWindow;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        clusterJobLock.runExclusively(JOB_NAME, () -> {
+            int removed;
+            do {
+                removed = relayBatch();
+            } while (removed == batchSize);
+        });
+    }
+
+    int relayBatch() {
+        Timestamp coalesceCutoff = Timestamp.from(Instant.now().minus(coalesceWindow));
+        List<OutboxRow> rows = jdbcTemplate.query(SELECT_BATCH, ROW_MAPPER, coalesceCutoff, batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<Long>> publishable = new TreeMap<>();
+        List<Long> removable = new ArrayList<>();
+        coalesce(rows, publishable, removable);
+
+        Map<Long, OutboxRow> byId = new HashMap<>();
+        rows.forEach(row -> byId.put(row.id(), row));
+        Map<Long, CompletableFuture<?>> sends = new LinkedHashMap<>();
+        Set<String> unsent = new HashSet<>();
+        for (Long id : publishable.keySet()) {
+            OutboxRow row = byId.get(id);
+            if (unsent.contains(row.key())) {
+                continue;
+            }
+            try {
+                Object event = OutboxEvents.toEvent(objectMapper, row.type(), row.payload());
+                sends.put(id, kafkaProducerService.send(row.topic(), row.key(), event));
+            } catch (RuntimeException e) {
+                log.warn("Failed to publish outbox event {}: {}", id, e.getMessage());
+                unsent.add(row.key());
+            }
+        }
+
+        // Once a row of a key is not acknowledged, the later rows of that key are kept too, so
+        // the retry publishes them again after it and the key's events keep their order.
+        Set<Long> acknowledged = awaitAcknowledged(sends);
+        Set<String> blocked = new HashSet<>();
+        for (Map.Entry<Long, List<Long>> entry : publishable.entrySet()) {
+            String key = byId.get(entry.getKey()).key();
+            if (blocked.contains(key)) {
+                continue;
+            }
+            if (acknowledged.contains(entry.getKey())) {
+                removable.addAll(entry.getValue());
+            } else {
+                blocked.add(key);
+            }
+        }
+        if (!removable.isEmpty()) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(DELETE_BATCH);
+                ps.setArray(1, con.createArrayOf("bigint", removable.toArray()));
+                return ps;
+            });
+        }
+        if (removable.size() < rows.size()) {
+            log.warn("Outbox relay removed {} of {} events; the rest will be retried",
+                    removable.size(), rows.size());
+        }
+        return removable.size();
+    }
+
+    /**
+     * Splits a batch into the rows to publish, each mapped to every row its acknowledgement
+     * settles, and the rows that cancelled out and can be removed straight away.
+     */
+    private static void coalesce(List<OutboxRow> rows, Map<Long, List<Long>> publishable, List<Long> removable) {
+        Map<String, List<Long>> runs = new LinkedHashMap<>();
+        for (OutboxRow row : rows) {
+            if (row.coalesceKey() == null) {
+                publishable.put(row.id(), List.of(row.id()));
+            } else {
+                runs.computeIfAbsent(row.coalesceKey(), key -> new ArrayList<>()).add(row.id());
+            }
+        }
+        for (List<Long> run : runs.values()) {
+            if (run.size() % 2 == 0) {
+                removable.addAll(run);
+            } else {
+                publishable.put(run.get(run.size() - 1), run);
+            }
+        }
+    }
+
+    private Set<Long> awaitAcknowledged(Map<Long, CompletableFuture<?>> sends) {
+        Set<Long> acknowledged = new HashSet<>();
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (Map.Entry<Long, CompletableFuture<?>> send : sends.entrySet()) {
+            try {
+                send.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(send.getKey());
+            } catch (ExecutionException | TimeoutException e) {
+                log.debug("Outbox event {} not acknowledged: {}", send.getKey(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return acknowledged;
+    }
+
+    private record OutboxRow(long id, String topic, String key, OutboxEventType type, String payload,
+                             String coalesceKey) {}
+}
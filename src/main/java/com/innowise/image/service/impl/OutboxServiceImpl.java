@@ -0,0 +1,54 @@
+package com.innowise.image.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.image.config.KafkaTopics;
+import com.innowise.image.entity.OutboxEventEntity;
+import com.innowise.image.entity.OutboxEventType;
+import com.innowise.image.repository.OutboxEventRepository;
+import com.innowise.image.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Records events in the outbox table as part of the caller's transaction. {@link OutboxRelay}
+ * publishes them once that transaction has committed, so rolled-back changes never produce
+ * events and Kafka latency stays off the request path.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void enqueueLikeEvent(UUID userId, UUID imageId, boolean isAdded) {
+        save(KafkaTopics.LIKE_EVENTS, userId, OutboxEventType.LIKE,
+                OutboxEvents.likePayload(objectMapper, userId, imageId, isAdded),
+                OutboxEvents.likeCoalesceKey(userId, imageId));
+    }
+
+    @Override
+    public void enqueueCommentEvent(UUID userId, UUID imageId, UUID commentId, String content, boolean isCreated) {
+        save(KafkaTopics.COMMENT_EVENTS, userId, OutboxEventType.COMMENT,
+                OutboxEvents.commentPayload(objectMapper, userId, imageId, commentId, content, isCreated),
+                null);
+    }
+
+    private void save(String topic, UUID key, OutboxEventType type, String payload, String coalesceKey) {
+        outboxEventRepository.save(OutboxEventEntity.builder()
+                .topic(topic)
+                .eventKey(key.toString())
+                .eventType(type)
+                .payload(payload)
+                .coalesceKey(coalesceKey)
+                .createdAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,100 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.S3Properties;
+import com.innowise.image.config.S3UploadProperties;
+import com.innowise.image.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Uploads files to S3 through the non-blocking client. At most {@code maxConcurrentAsyncUploads}
+ * transfers run at once; further requests are rejected rather than queued. Returned futures
+ * complete on a dedicated pool so that callers may chain blocking work such as JDBC inserts
+ * without tying up the SDK's response threads.
+ */
+@Slf4j
+@Component
+public class S3AsyncUploader {
+
+    private final S3AsyncClient s3AsyncClient;
+    private final S3Properties s3Properties;
+    private final Semaphore uploadPermits;
+    private final ExecutorService completionExecutor;
+
+    public S3AsyncUploader(S3AsyncClient s3AsyncClient, S3Properties s3Properties,
+                           S3UploadProperties uploadProperties) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3Properties = s3Properties;
+        this.uploadPermits = new Semaphore(uploadProperties.maxConcurrentAsyncUploads());
+        this.completionExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "s3-async-upload-completion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Uploads {@code file} and deletes it once the transfer has finished, whatever the outcome.
+     * The returned future completes with the SHA-256 of the file, hashed as the SDK reads it, and
+     * is completed from the completion pool, so stages chained onto it while the transfer is in
+     * flight run there as well.
+     */
+    public CompletableFuture<String> upload(String key, String contentType, Path file) {
+        if (!uploadPermits.tryAcquire()) {
+            deleteQuietly(file);
+            throw new ServiceUnavailableException("Too many uploads in progress, retry later");
+        }
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        DigestingAsyncRequestBody body = new DigestingAsyncRequestBody(AsyncRequestBody.fromFile(file));
+        try {
+            s3AsyncClient.putObject(PutObjectRequest.builder()
+                                    .bucket(s3Properties.bucket())
+                                    .key(key)
+                                    .contentType(contentType)
+                                    .build(),
+                            body)
+                    .whenCompleteAsync((response, error) -> {
+                        uploadPermits.release();
+                        deleteQuietly(file);
+                        if (error != null) {
+                            result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error);
+                        } else {
+                            result.complete(body.sha256());
+                        }
+                    }, completionExecutor);
+        } catch (RuntimeException e) {
+            uploadPermits.release();
+            deleteQuietly(file);
+            throw e;
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        completionExecutor.shutdown();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete upload temp file {}", file, e);
+        }
+    }
+}
@@ -1,17 +1,20 @@
 package com.innowise.image.service.impl;
 
 import com.innowise.image.config.S3Properties;
+import com.innowise.image.config.S3UploadProperties;
 import com.innowise.image.service.S3Service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.ObjectCannedACL;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.net.URI;
 
@@ -21,6 +24,8 @@ public class S3ServiceImpl implements S3Service {
 
     private final S3Client s3Client;
     private final S3Properties properties;
+    private final S3Presigner s3Presigner;
+    private final S3UploadProperties uploadProperties;
 
     @Override
     public String upload(byte[] data, String key, String contentType) {
@@ -49,6 +54,7 @@ public class S3ServiceImpl implements S3Service {
                 .build());
     }
 
+    @Override
     public boolean exists(String key) {
         try {
             s3Client.headObject(HeadObjectRequest.builder()
@@ -61,11 +67,16 @@ public class S3ServiceImpl implements S3Service {
         }
     }
 
-    public byte[] download(String key) {
-        GetObjectRequest req = GetObjectRequest.builder()
-                .bucket(properties.bucket())
-                .key(key)
-                .build();
-        return s3Client.getObjectAsBytes(req).asByteArray();
+    @Override
+    public PresignedUpload presignUpload(String key, String contentType) {
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(uploadProperties.presignTtl())
+                .putObjectRequest(PutObjectRequest.builder()
+                        .bucket(properties.bucket())
+                        .key(key)
+                        .contentType(contentType)
+                        .build())
+                .build());
+        return new PresignedUpload(presigned.url().toString(), presigned.expiration());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,211 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.S3Properties;
+import com.innowise.image.config.S3UploadProperties;
+import com.innowise.image.exception.PayloadTooLargeException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams an upload of unknown length to S3 without buffering the whole object. Objects that
+ * fit in a single part go out as one PUT; larger ones use the multipart-upload API with several
+ * parts in flight. Part buffers come from a pool shared by all uploads, which caps the heap
+ * spent on upload data at {@code maxBufferedParts * partSize}. Objects larger than
+ * {@code maxStreamSize} are rejected as soon as the excess is read, aborting any multipart
+ * upload already started.
+ */
+@Slf4j
+@Component
+public class S3StreamingUploader {
+
+    private final S3Client s3Client;
+    private final S3Properties s3Properties;
+    private final int partSize;
+    private final long maxSize;
+    private final Semaphore bufferPermits;
+    private final BlockingQueue<byte[]> freeBuffers = new LinkedBlockingQueue<>();
+    private final ExecutorService partExecutor;
+
+    public S3StreamingUploader(S3Client s3Client, S3Properties s3Properties, S3UploadProperties uploadProperties) {
+        this.s3Client = s3Client;
+        this.s3Properties = s3Properties;
+        this.partSize = Math.toIntExact(uploadProperties.partSize().toBytes());
+        this.maxSize = uploadProperties.maxStreamSize().toBytes();
+        this.bufferPermits = new Semaphore(uploadProperties.maxBufferedParts());
+        this.partExecutor = Executors.newFixedThreadPool(uploadProperties.partUploadThreads(), r -> {
+            Thread thread = new Thread(r, "s3-part-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void upload(String key, String contentType, InputStream content) throws IOException {
+        byte[] buffer = acquireBuffer();
+        int length;
+        try {
+            length = content.readNBytes(buffer, 0, partSize);
+            checkSize(length);
+        } catch (IOException | RuntimeException e) {
+            releaseBuffer(buffer);
+            throw e;
+        }
+
+        if (length < partSize) {
+            try {
+                s3Client.putObject(PutObjectRequest.builder()
+                                .bucket(s3Properties.bucket())
+                                .key(key)
+                                .contentType(contentType)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length));
+            } finally {
+                releaseBuffer(buffer);
+            }
+            return;
+        }
+        uploadMultipart(key, contentType, content, buffer);
+    }
+
+    private void uploadMultipart(String key, String contentType, InputStream content, byte[] firstPart)
+            throws IOException {
+        String uploadId;
+        try {
+            uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(s3Properties.bucket())
+                    .key(key)
+                    .contentType(contentType)
+                    .build()).uploadId();
+        } catch (RuntimeException e) {
+            releaseBuffer(firstPart);
+            throw e;
+        }
+
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        byte[] buffer = firstPart;
+        int length = partSize;
+        long total = partSize;
+        try {
+            while (length > 0 && parts.stream().noneMatch(CompletableFuture::isCompletedExceptionally)) {
+                parts.add(uploadPart(key, uploadId, parts.size() + 1, buffer, length));
+                buffer = null;
+                if (length < partSize) {
+                    break;
+                }
+                buffer = acquireBuffer();
+                length = content.readNBytes(buffer, 0, partSize);
+                total += length;
+                checkSize(total);
+            }
+            if (buffer != null) {
+                releaseBuffer(buffer);
+                buffer = null;
+            }
+
+            List<CompletedPart> completedParts = parts.stream()
+                    .map(CompletableFuture::join)
+                    .sorted(Comparator.comparing(CompletedPart::partNumber))
+                    .toList();
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(s3Properties.bucket())
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            if (buffer != null) {
+                releaseBuffer(buffer);
+            }
+            abort(key, uploadId, parts);
+            if (e instanceof CompletionException && e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<CompletedPart> uploadPart(String key, String uploadId, int partNumber,
+                                                        byte[] buffer, int length) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(s3Properties.bucket())
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) length)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length)).eTag();
+                return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+            } finally {
+                releaseBuffer(buffer);
+            }
+        }, partExecutor);
+    }
+
+    private void checkSize(long size) {
+        if (size > maxSize) {
+            throw new PayloadTooLargeException("Upload exceeds the maximum size of " + maxSize + " bytes");
+        }
+    }
+
+    private void abort(String key, String uploadId, List<CompletableFuture<CompletedPart>> parts) {
+        CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                .exceptionally(ex -> null)
+                .join();
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(s3Properties.bucket())
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("Failed to abort multipart upload {} for key {}", uploadId, key, e);
+        }
+    }
+
+    private byte[] acquireBuffer() throws InterruptedIOException {
+        try {
+            bufferPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an upload buffer");
+        }
+        byte[] buffer = freeBuffers.poll();
+        return buffer != null ? buffer : new byte[partSize];
+    }
+
+    private void releaseBuffer(byte[] buffer) {
+        freeBuffers.offer(buffer);
+        bufferPermits.release();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdown();
+    }
+}
@@ -0,0 +1,126 @@
+package com.innowise.image.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.innowise.image.client.AuthServiceClient;
+import com.innowise.image.config.UsernameCacheProperties;
+import com.innowise.image.service.UsernameResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Resolves user ids to usernames through a bounded, TTL-based cache in front of auth-service.
+ * Misses for a whole listing are loaded with a single bulk call, and concurrent misses on the
+ * same id share the in-flight load. Loads block on HTTP, so they run on a small dedicated pool
+ * rather than the common pool. Ids auth-service does not know are cached as absent for a
+ * shorter TTL, so they are not fetched again on every listing.
+ */
+@Service
+public class UsernameResolverImpl implements UsernameResolver {
+
+    private static final String CACHE_NAME = "usernames";
+
+    private final AuthServiceClient authServiceClient;
+    private final Timer loadTimer;
+    private final Timer batchLoadTimer;
+    private final ExecutorService loadExecutor;
+    private final AsyncLoadingCache<UUID, Optional<String>> cache;
+
+    public UsernameResolverImpl(AuthServiceClient authServiceClient,
+                                UsernameCacheProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.authServiceClient = authServiceClient;
+        this.loadTimer = Timer.builder("auth.username.load")
+                .description("Latency of single username lookups against auth-service")
+                .register(meterRegistry);
+        this.batchLoadTimer = Timer.builder("auth.username.batch.load")
+                .description("Latency of bulk username lookups against auth-service")
+                .register(meterRegistry);
+        this.loadExecutor = Executors.newFixedThreadPool(properties.loadThreads(), r -> {
+            Thread thread = new Thread(r, "username-load");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfter(Expiry.<UUID, Optional<String>>writing((userId, username) ->
+                        username.isPresent() ? properties.ttl() : properties.negativeTtl()))
+                .executor(loadExecutor)
+                .recordStats()
+                .buildAsync(new UsernameLoader());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public String resolve(UUID userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return cache.get(userId).join().orElse(null);
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    @Override
+    public Map<UUID, String> resolveAll(Collection<UUID> userIds) {
+        Set<UUID> distinct = new HashSet<>(userIds);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            Map<UUID, String> usernames = new HashMap<>();
+            cache.getAll(distinct).join().forEach((userId, username) ->
+                    username.ifPresent(name -> usernames.put(userId, name)));
+            return usernames;
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loadExecutor.shutdown();
+    }
+
+    private RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+
+    private class UsernameLoader implements CacheLoader<UUID, Optional<String>> {
+
+        @Override
+        public Optional<String> load(UUID userId) {
+            return Optional.ofNullable(loadTimer.record(() -> authServiceClient.getUsernameById(userId)));
+        }
+
+        @Override
+        public Map<UUID, Optional<String>> loadAll(Set<? extends UUID> userIds) {
+            Map<UUID, String> usernames = batchLoadTimer.record(
+                    () -> authServiceClient.getUsernamesByIds(Set.copyOf(userIds)));
+            Map<UUID, Optional<String>> resolved = new HashMap<>();
+            for (UUID userId : userIds) {
+                resolved.put(userId, Optional.ofNullable(usernames != null ? usernames.get(userId) : null));
+            }
+            return resolved;
+        }
+    }
+}
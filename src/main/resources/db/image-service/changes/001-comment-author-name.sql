@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset image-service:001-comment-author-name
+ALTER TABLE gallery.comments ADD COLUMN author_name VARCHAR(255);
+--rollback ALTER TABLE gallery.comments DROP COLUMN author_name;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset image-service:002-image-feed-keyset-indexes runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_images_uploaded_at_id
+    ON gallery.images (uploaded_at DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_images_user_uploaded_at_id
+    ON gallery.images (user_id, uploaded_at DESC, id DESC);
+--rollback DROP INDEX IF EXISTS gallery.idx_images_uploaded_at_id;
+--rollback DROP INDEX IF EXISTS gallery.idx_images_user_uploaded_at_id;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset image-service:003-image-likes-count
+ALTER TABLE gallery.images ADD COLUMN likes_count INTEGER NOT NULL DEFAULT 0;
+UPDATE gallery.images i
+SET likes_count = c.cnt
+FROM (SELECT image_id, COUNT(*) AS cnt FROM gallery.likes GROUP BY image_id) c
+WHERE i.id = c.image_id;
+--rollback ALTER TABLE gallery.images DROP COLUMN likes_count;
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset image-service:004-image-status-and-key
+ALTER TABLE gallery.images ADD COLUMN status VARCHAR(16) NOT NULL DEFAULT 'READY';
+ALTER TABLE gallery.images ADD COLUMN s3_key VARCHAR(1024);
+UPDATE gallery.images SET s3_key = substring(url FROM '/images/(.*)$') WHERE s3_key IS NULL;
+CREATE INDEX idx_images_pending_uploaded_at ON gallery.images (uploaded_at) WHERE status = 'PENDING';
+--rollback DROP INDEX IF EXISTS gallery.idx_images_pending_uploaded_at;
+--rollback ALTER TABLE gallery.images DROP COLUMN s3_key;
+--rollback ALTER TABLE gallery.images DROP COLUMN status;
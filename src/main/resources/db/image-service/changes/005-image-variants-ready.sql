@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset image-service:005-image-variants-ready
+ALTER TABLE gallery.images ADD COLUMN variants_ready BOOLEAN NOT NULL DEFAULT FALSE;
+--rollback ALTER TABLE gallery.images DROP COLUMN variants_ready;
@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset image-service:006-image-blobs
+CREATE TABLE gallery.image_blobs (
+    sha256 VARCHAR(64) PRIMARY KEY,
+    s3_key VARCHAR(1024) NOT NULL,
+    ref_count INTEGER NOT NULL
+);
+ALTER TABLE gallery.images ADD COLUMN content_sha256 VARCHAR(64);
+CREATE INDEX idx_images_s3_key ON gallery.images (s3_key);
+--rollback DROP INDEX IF EXISTS gallery.idx_images_s3_key;
+--rollback ALTER TABLE gallery.images DROP COLUMN content_sha256;
+--rollback DROP TABLE gallery.image_blobs;
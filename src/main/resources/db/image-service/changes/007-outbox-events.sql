@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset image-service:007-outbox-events
+CREATE TABLE gallery.outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    event_key VARCHAR(255),
+    event_type VARCHAR(32) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+--rollback DROP TABLE gallery.outbox_events;
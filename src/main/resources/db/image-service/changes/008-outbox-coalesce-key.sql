@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset image-service:008-outbox-coalesce-key
+ALTER TABLE gallery.outbox_events ADD COLUMN coalesce_key VARCHAR(128);
+--rollback ALTER TABLE gallery.outbox_events DROP COLUMN coalesce_key;
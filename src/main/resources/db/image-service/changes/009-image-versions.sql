@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+--changeset image-service:009-image-versions
+ALTER TABLE gallery.images ADD COLUMN updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE gallery.images ADD COLUMN comments_updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+UPDATE gallery.images SET updated_at = uploaded_at;
+--rollback ALTER TABLE gallery.images DROP COLUMN comments_updated_at;
+--rollback ALTER TABLE gallery.images DROP COLUMN updated_at;
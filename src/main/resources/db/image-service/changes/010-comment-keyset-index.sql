@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset image-service:010-comment-keyset-index runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_image_created_at_id
+    ON gallery.comments (image_id, created_at DESC, id DESC);
+--rollback DROP INDEX IF EXISTS gallery.idx_comments_image_created_at_id;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset image-service:011-image-comments-count
+ALTER TABLE gallery.images ADD COLUMN comments_count INTEGER NOT NULL DEFAULT 0;
+UPDATE gallery.images i
+SET comments_count = c.cnt
+FROM (SELECT image_id, COUNT(*) AS cnt FROM gallery.comments GROUP BY image_id) c
+WHERE i.id = c.image_id;
+--rollback ALTER TABLE gallery.images DROP COLUMN comments_count;
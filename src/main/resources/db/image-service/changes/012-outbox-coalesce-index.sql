@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset image-service:012-outbox-coalesce-index runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_events_coalesce_key_created_at
+    ON gallery.outbox_events (coalesce_key, created_at)
+    WHERE coalesce_key IS NOT NULL;
+--rollback DROP INDEX IF EXISTS gallery.idx_outbox_events_coalesce_key_created_at;
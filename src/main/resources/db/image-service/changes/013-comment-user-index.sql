@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset image-service:013-comment-user-index runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_user_id
+    ON gallery.comments (user_id);
+--rollback DROP INDEX IF EXISTS gallery.idx_comments_user_id;
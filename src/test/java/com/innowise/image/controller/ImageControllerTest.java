@@ -1,19 +1,31 @@
 package com.innowise.image.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.innowise.common.security.JwtUtil;
+import com.innowise.image.config.HttpCacheProperties;
 import com.innowise.image.dto.CommentDto;
+import com.innowise.image.dto.CursorPageResponseDto;
+import com.innowise.image.dto.ImageCardDto;
 import com.innowise.image.dto.ImageDto;
+import com.innowise.image.dto.ImageLikesDto;
 import com.innowise.image.dto.UploadResponseDto;
+import com.innowise.image.exception.BadRequestException;
 import com.innowise.image.exception.ConflictException;
 import com.innowise.image.exception.ForbiddenException;
 import com.innowise.image.exception.GlobalExceptionHandler;
 import com.innowise.image.exception.NotFoundException;
+import com.innowise.image.exception.PayloadTooLargeException;
+import com.innowise.image.exception.ServiceUnavailableException;
+import com.innowise.image.security.JwtPrincipal;
+import com.innowise.image.security.JwtPrincipalArgumentResolver;
 import com.innowise.image.service.CommentService;
+import com.innowise.image.service.FeedService;
+import com.innowise.image.service.ImageContentService;
 import com.innowise.image.service.ImageService;
 import com.innowise.image.service.LikeService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -23,56 +35,94 @@ import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ImageControllerTest {
 
+    private static final Instant VERSION = Instant.parse("2024-05-01T10:15:30.123456Z");
+
     private MockMvc mockMvc;
-    private JwtUtil jwtUtil;
     private LikeService likeService;
     private ImageService imageService;
     private CommentService commentService;
+    private ImageContentService imageContentService;
+    private FeedService feedService;
     private ObjectMapper objectMapper;
     private UUID userId;
-    private String authHeader;
+
+    @TempDir
+    Path tempDir;
 
     @BeforeEach
     void setup() {
-        jwtUtil = Mockito.mock(JwtUtil.class);
         likeService = Mockito.mock(LikeService.class);
         imageService = Mockito.mock(ImageService.class);
         commentService = Mockito.mock(CommentService.class);
+        imageContentService = Mockito.mock(ImageContentService.class);
+        feedService = Mockito.mock(FeedService.class);
         objectMapper = new ObjectMapper();
 
-        ImageController imageController = new ImageController(jwtUtil, likeService, imageService, commentService);
+        ImageController imageController = new ImageController(likeService, imageService, commentService,
+                imageContentService, feedService, new HttpCacheProperties(
+                        new HttpCacheProperties.Policy(Duration.ofSeconds(60), false),
+                        new HttpCacheProperties.Policy(Duration.ZERO, false),
+                        new HttpCacheProperties.Policy(Duration.ZERO, true)));
 
         mockMvc = MockMvcBuilders.standaloneSetup(imageController)
                 .setControllerAdvice(new GlobalExceptionHandler())
-                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver(), new JwtPrincipalArgumentResolver())
                 .build();
 
         userId = UUID.randomUUID();
-        authHeader = "Bearer valid-token";
 
-        lenient().when(jwtUtil.extractUserId(anyString())).thenReturn(userId);
+        when(imageService.getImageVersion(any())).thenReturn(VERSION);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private RequestPostProcessor authenticated() {
+        return request -> {
+            JwtPrincipal principal = new JwtPrincipal(userId, "alice");
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+            return request;
+        };
     }
 
     @Test
@@ -89,7 +139,7 @@ class ImageControllerTest {
         mockMvc.perform(multipart("/api/images")
                         .file(file)
                         .param("description", "test image")
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").value(response.getId().toString()))
                 .andExpect(jsonPath("$.url").value(response.getUrl()));
@@ -115,7 +165,7 @@ class ImageControllerTest {
 
         mockMvc.perform(multipart("/api/images")
                         .file(file)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().is5xxServerError());
     }
 
@@ -129,11 +179,95 @@ class ImageControllerTest {
 
         mockMvc.perform(multipart("/api/images")
                         .file(file)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.message").value("Image already exists"));
     }
 
+    @Test
+    void uploadImageAsync_success() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.jpg",
+                MediaType.IMAGE_JPEG_VALUE, "fake-image".getBytes());
+
+        UploadResponseDto response = new UploadResponseDto();
+        response.setId(UUID.randomUUID());
+        response.setUrl("http://localhost/images/" + response.getId());
+        when(imageService.uploadImageAsync(any(), eq(userId), any()))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        MvcResult result = mockMvc.perform(multipart("/api/images/async")
+                        .file(file)
+                        .with(authenticated()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/images/" + response.getId()))
+                .andExpect(jsonPath("$.id").value(response.getId().toString()));
+    }
+
+    @Test
+    void uploadImageAsync_saturated_shouldReturn503() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.jpg",
+                MediaType.IMAGE_JPEG_VALUE, "fake-image".getBytes());
+        when(imageService.uploadImageAsync(any(), any(), any()))
+                .thenThrow(new ServiceUnavailableException("Too many uploads in progress, retry later"));
+
+        mockMvc.perform(multipart("/api/images/async")
+                        .file(file)
+                        .with(authenticated()))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void uploadImageAsync_transferFails_shouldReturnUnwrappedError() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.jpg",
+                MediaType.IMAGE_JPEG_VALUE, "fake-image".getBytes());
+        when(imageService.uploadImageAsync(any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new ConflictException("Image already exists")));
+
+        MvcResult result = mockMvc.perform(multipart("/api/images/async")
+                        .file(file)
+                        .with(authenticated()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void uploadImageStream_success() throws Exception {
+        UploadResponseDto response = new UploadResponseDto();
+        response.setId(UUID.randomUUID());
+        response.setUrl("http://localhost/images/" + response.getId());
+
+        when(imageService.uploadImageStream(any(), eq("big.jpg"), eq(MediaType.IMAGE_JPEG_VALUE), eq(userId), any()))
+                .thenReturn(response);
+
+        mockMvc.perform(post("/api/images/stream")
+                        .param("filename", "big.jpg")
+                        .contentType(MediaType.IMAGE_JPEG)
+                        .content("fake-image".getBytes())
+                        .with(authenticated()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(response.getId().toString()));
+    }
+
+    @Test
+    void uploadImageStream_tooLarge_returns413() throws Exception {
+        when(imageService.uploadImageStream(any(), eq("big.jpg"), eq(MediaType.IMAGE_JPEG_VALUE), eq(userId), any()))
+                .thenThrow(new PayloadTooLargeException("Upload exceeds the maximum size of 10 bytes"));
+
+        mockMvc.perform(post("/api/images/stream")
+                        .param("filename", "big.jpg")
+                        .contentType(MediaType.IMAGE_JPEG)
+                        .content("fake-image-too-large".getBytes())
+                        .with(authenticated()))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
     @Test
     void getImage_success() throws Exception {
         UUID imageId = UUID.randomUUID();
@@ -147,20 +281,120 @@ class ImageControllerTest {
         when(imageService.getImage(imageId)).thenReturn(dto);
 
         mockMvc.perform(get("/api/images/{id}", imageId)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(imageId.toString()))
                 .andExpect(jsonPath("$.url").value("http://example.com/img.jpg"))
                 .andExpect(jsonPath("$.description").value("desc"));
     }
 
+    @Test
+    void getImage_setsValidatorsAndCacheControl() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(imageService.getImage(imageId)).thenReturn(ImageDto.builder().id(imageId).build());
+
+        mockMvc.perform(get("/api/images/{id}", imageId)
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1714558530123456\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, VERSION.toEpochMilli() / 1000 * 1000))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, private"));
+    }
+
+    @Test
+    void getImage_matchingETag_returns304WithoutLoadingImage() throws Exception {
+        UUID imageId = UUID.randomUUID();
+
+        mockMvc.perform(get("/api/images/{id}", imageId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"1714558530123456\"")
+                        .with(authenticated()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, private"))
+                .andExpect(content().string(""));
+        verify(imageService, never()).getImage(any());
+    }
+
+    @Test
+    void getImage_staleETag_returnsFullBody() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(imageService.getImage(imageId)).thenReturn(ImageDto.builder().id(imageId).build());
+
+        mockMvc.perform(get("/api/images/{id}", imageId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"1\"")
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(imageId.toString()));
+    }
+
+    @Test
+    void getImage_unknownVersion_returns404() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(imageService.getImageVersion(imageId)).thenThrow(new NotFoundException("Image not found"));
+
+        mockMvc.perform(get("/api/images/{id}", imageId)
+                        .with(authenticated()))
+                .andExpect(status().isNotFound());
+        verify(imageService, never()).getImage(any());
+    }
+
+    @Test
+    void listComments_notModifiedSince_returns304() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(commentService.getCommentsVersion(imageId)).thenReturn(Optional.of(VERSION));
+
+        mockMvc.perform(get("/api/images/{id}/comments", imageId)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 May 2024 10:15:31 GMT")
+                        .with(authenticated()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"));
+        verify(commentService, never()).listComments(any());
+    }
+
+    @Test
+    void listComments_unknownImage_skipsValidators() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(commentService.getCommentsVersion(imageId)).thenReturn(Optional.empty());
+        when(commentService.listComments(imageId)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/images/{id}/comments", imageId)
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void listCommentsByCursor_returnsPageWithValidators() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        CommentDto comment = new CommentDto();
+        comment.setContent("first");
+        CursorPageResponseDto<CommentDto> page = CursorPageResponseDto.<CommentDto>builder()
+                .content(List.of(comment))
+                .size(10)
+                .nextCursor("next")
+                .last(false)
+                .build();
+        when(commentService.getCommentsVersion(imageId)).thenReturn(Optional.of(VERSION));
+        when(commentService.listComments(imageId, "", 10)).thenReturn(page);
+
+        mockMvc.perform(get("/api/images/{id}/comments", imageId)
+                        .param("cursor", "")
+                        .param("size", "10")
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.content[0].content").value("first"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+        verify(commentService, never()).listComments(imageId);
+    }
+
     @Test
     void getImage_notFound_shouldReturn404() throws Exception {
         UUID imageId = UUID.randomUUID();
         when(imageService.getImage(imageId)).thenThrow(new NotFoundException("Image not found"));
 
         mockMvc.perform(get("/api/images/{id}", imageId)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Image not found"));
     }
@@ -171,11 +405,112 @@ class ImageControllerTest {
         when(imageService.getImage(imageId)).thenThrow(new ForbiddenException("Access denied"));
 
         mockMvc.perform(get("/api/images/{id}", imageId)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isForbidden())
                 .andExpect(jsonPath("$.message").value("Access denied"));
     }
 
+    @Test
+    void deleteImage_success() throws Exception {
+        UUID imageId = UUID.randomUUID();
+
+        mockMvc.perform(delete("/api/images/{id}", imageId)
+                        .with(authenticated()))
+                .andExpect(status().isNoContent());
+
+        Mockito.verify(imageService).deleteImage(imageId, userId);
+    }
+
+    @Test
+    void deleteImage_notOwner_shouldReturn403() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        Mockito.doThrow(new ForbiddenException("Access denied")).when(imageService).deleteImage(imageId, userId);
+
+        mockMvc.perform(delete("/api/images/{id}", imageId)
+                        .with(authenticated()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getImageContent_fullBody() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(imageContentService.getContent(imageId)).thenReturn(cachedContent("0123456789"));
+
+        mockMvc.perform(get("/api/images/{id}/content", imageId)
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void getImageContent_range_returnsPartialContent() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(imageContentService.getContent(imageId)).thenReturn(cachedContent("0123456789"));
+
+        mockMvc.perform(get("/api/images/{id}/content", imageId)
+                        .with(authenticated())
+                        .header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void getImageContent_unsatisfiableRange_returns416() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(imageContentService.getContent(imageId)).thenReturn(cachedContent("0123456789"));
+
+        mockMvc.perform(get("/api/images/{id}/content", imageId)
+                        .with(authenticated())
+                        .header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void getImageContent_staleIfRange_returnsFullBody() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(imageContentService.getContent(imageId)).thenReturn(cachedContent("0123456789"));
+
+        mockMvc.perform(get("/api/images/{id}/content", imageId)
+                        .with(authenticated())
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void getImageContent_matchingETag_returns304() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(imageContentService.getContent(imageId)).thenReturn(cachedContent("0123456789"));
+
+        mockMvc.perform(get("/api/images/{id}/content", imageId)
+                        .with(authenticated())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getImageContent_notFound_shouldReturn404() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(imageContentService.getContent(imageId)).thenThrow(new NotFoundException("Image not found"));
+
+        mockMvc.perform(get("/api/images/{id}/content", imageId)
+                        .with(authenticated()))
+                .andExpect(status().isNotFound());
+    }
+
+    private ImageContentService.ImageContent cachedContent(String body) throws Exception {
+        Path file = Files.writeString(tempDir.resolve(UUID.randomUUID() + ".blob"), body);
+        return new ImageContentService.ImageContent(file, body.length(), MediaType.IMAGE_PNG_VALUE, "\"abc\"");
+    }
+
     @Test
     void getUserImages_success() throws Exception {
         ImageDto dto = new ImageDto();
@@ -191,7 +526,7 @@ class ImageControllerTest {
         mockMvc.perform(get("/api/user/{id}/images", userId)
                 .param("page", "0")
                 .param("size", "20")
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].id").value(dto.getId().toString()))
                 .andExpect(jsonPath("$.content[0].url").value(dto.getUrl()));
@@ -203,7 +538,7 @@ class ImageControllerTest {
                 .thenThrow(new NotFoundException("User not found"));
 
         mockMvc.perform(get("/api/user/{id}/images", UUID.randomUUID())
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("User not found"));
     }
@@ -228,19 +563,54 @@ class ImageControllerTest {
         mockMvc.perform(get("/api/images")
                         .param("page", "0")
                         .param("size", "10")
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].id").value(dto.getId().toString()))
                 .andExpect(jsonPath("$.content[0].url").value("http://img.local/test2"));
     }
 
+    @Test
+    void getAllImagesByCursor_success() throws Exception {
+        ImageDto dto = new ImageDto();
+        dto.setId(UUID.randomUUID());
+        dto.setUrl("http://img.local/test3");
+
+        CursorPageResponseDto<ImageDto> page = CursorPageResponseDto.<ImageDto>builder()
+                .content(List.of(dto))
+                .size(10)
+                .nextCursor("next")
+                .last(false)
+                .build();
+        when(imageService.getAllImages("", 10)).thenReturn(page);
+
+        mockMvc.perform(get("/api/images")
+                        .param("cursor", "")
+                        .param("size", "10")
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(dto.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getAllImagesByCursor_invalidCursor_shouldReturn400() throws Exception {
+        when(imageService.getAllImages("bad", 20)).thenThrow(new BadRequestException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/images")
+                        .param("cursor", "bad")
+                        .with(authenticated()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
     @Test
     void getAllImages_internalError() throws Exception {
         when(imageService.getAllImages(any(Pageable.class)))
                 .thenThrow(new RuntimeException("DB error"));
 
         mockMvc.perform(get("/api/images")
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().is5xxServerError());
     }
 
@@ -250,10 +620,42 @@ class ImageControllerTest {
                 .andExpect(status().is5xxServerError());
     }
 
+    @Test
+    void getFeed_passesViewerAndCursor() throws Exception {
+        ImageCardDto card = ImageCardDto.builder()
+                .id(UUID.randomUUID())
+                .authorName("bob")
+                .likesCount(3)
+                .commentsCount(2)
+                .likedByMe(true)
+                .build();
+        when(feedService.getFeed(userId, "abc", 20)).thenReturn(CursorPageResponseDto.<ImageCardDto>builder()
+                .content(List.of(card))
+                .size(20)
+                .last(true)
+                .build());
+
+        mockMvc.perform(get("/api/feed")
+                        .param("cursor", "abc")
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].authorName").value("bob"))
+                .andExpect(jsonPath("$.content[0].likesCount").value(3))
+                .andExpect(jsonPath("$.content[0].commentsCount").value(2))
+                .andExpect(jsonPath("$.content[0].likedByMe").value(true))
+                .andExpect(jsonPath("$.last").value(true));
+    }
+
+    @Test
+    void getFeed_missingAuth_shouldFail() throws Exception {
+        mockMvc.perform(get("/api/feed"))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void toggleLike_success() throws Exception {
         mockMvc.perform(post("/api/images/{id}/likes", UUID.randomUUID())
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isNoContent());
     }
 
@@ -264,17 +666,86 @@ class ImageControllerTest {
                 .andExpect(jsonPath("$.message").value("Missing or invalid Authorization header"));
     }
 
+    @Test
+    void countLikes_matchingETag_returns304() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(likeService.countLikes(imageId)).thenReturn(5);
+
+        mockMvc.perform(get("/api/images/{id}/likes/count", imageId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"5\"")
+                        .with(authenticated()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+    }
+
     @Test
     void countLikes_success() throws Exception {
         UUID imageId = UUID.randomUUID();
         when(likeService.countLikes(imageId)).thenReturn(5);
 
         mockMvc.perform(get("/api/images/{id}/likes/count", imageId)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.likesCount").value(5));
     }
 
+    @Test
+    void getLikesBatch_returnsCountsAndLikedFlagsForCaller() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(likeService.getLikes(List.of(first, second), userId)).thenReturn(Map.of(
+                first, new ImageLikesDto(5, true),
+                second, new ImageLikesDto(0, false)));
+
+        mockMvc.perform(get("/api/images/likes")
+                        .param("ids", first + "," + second)
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + first + "'].likesCount").value(5))
+                .andExpect(jsonPath("$['" + first + "'].likedByMe").value(true))
+                .andExpect(jsonPath("$['" + second + "'].likedByMe").value(false));
+    }
+
+    @Test
+    void countComments_success() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(commentService.countComments(imageId)).thenReturn(3);
+
+        mockMvc.perform(get("/api/images/{id}/comments/count", imageId)
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""))
+                .andExpect(jsonPath("$.commentsCount").value(3));
+    }
+
+    @Test
+    void countCommentsBatch_returnsCountsById() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(commentService.countComments(List.of(first, second))).thenReturn(Map.of(first, 2, second, 0));
+
+        mockMvc.perform(get("/api/images/comments/count")
+                        .param("ids", first.toString(), second.toString(), first.toString())
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + first + "']").value(2))
+                .andExpect(jsonPath("$['" + second + "']").value(0));
+    }
+
+    @Test
+    void countCommentsBatch_tooManyIds_shouldReturn400() throws Exception {
+        String[] ids = new String[101];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+        }
+
+        mockMvc.perform(get("/api/images/comments/count")
+                        .param("ids", ids)
+                        .with(authenticated()))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(commentService);
+    }
+
     @Test
     void addComment_success() throws Exception {
         UUID imageId = UUID.randomUUID();
@@ -283,10 +754,10 @@ class ImageControllerTest {
 
         CommentDto response = new CommentDto();
         response.setContent("Hello");
-        when(commentService.addComment(eq(imageId), eq(userId), any(CommentDto.class))).thenReturn(response);
+        when(commentService.addComment(eq(imageId), eq(userId), eq("alice"), any(CommentDto.class))).thenReturn(response);
 
         mockMvc.perform(post("/api/images/{id}/comments", imageId)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader)
+                        .with(authenticated())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
@@ -312,11 +783,11 @@ class ImageControllerTest {
         CommentDto request = new CommentDto();
         request.setContent("Missing");
 
-        when(commentService.addComment(eq(imageId), eq(userId), any(CommentDto.class)))
+        when(commentService.addComment(eq(imageId), eq(userId), eq("alice"), any(CommentDto.class)))
                 .thenThrow(new NotFoundException("Image not found"));
 
         mockMvc.perform(post("/api/images/{id}/comments", imageId)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader)
+                        .with(authenticated())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isNotFound())
@@ -333,11 +804,11 @@ class ImageControllerTest {
         CommentDto response = new CommentDto();
         response.setContent("Updated");
 
-        when(commentService.updateComment(eq(imageId), eq(commentId), eq(userId), any(CommentDto.class)))
+        when(commentService.updateComment(eq(imageId), eq(commentId), eq(userId), eq("alice"), any(CommentDto.class)))
                 .thenReturn(response);
 
         mockMvc.perform(put("/api/images/{id}/comments/{commentId}", imageId, commentId)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader)
+                        .with(authenticated())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -365,10 +836,10 @@ class ImageControllerTest {
         CommentDto request = new CommentDto();
         request.setContent("Updated");
 
-        when(commentService.updateComment(eq(imageId), eq(commentId), eq(userId), any(CommentDto.class)))
+        when(commentService.updateComment(eq(imageId), eq(commentId), eq(userId), eq("alice"), any(CommentDto.class)))
                 .thenThrow(new ForbiddenException("Access denied"));
         mockMvc.perform(put("/api/images/{id}/comments/{commentId}", imageId, commentId)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader)
+                        .with(authenticated())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isForbidden())
@@ -381,7 +852,7 @@ class ImageControllerTest {
         UUID commentId = UUID.randomUUID();
 
         mockMvc.perform(delete("/api/images/{id}/comments/{commentId}", imageId, commentId)
-                        .header(HttpHeaders.AUTHORIZATION, authHeader))
+                        .with(authenticated()))
                 .andExpect(status().isNoContent());
     }
 
@@ -0,0 +1,54 @@
+package com.innowise.image.job;
+
+import com.innowise.image.repository.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommentCountReconcilerTest {
+
+    private ImageRepository imageRepository;
+    private CommentCountReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        imageRepository = mock(ImageRepository.class);
+        reconciler = new CommentCountReconciler(imageRepository, mock(ClusterJobLock.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void reconcileChunk_recountsOnlyRowsItLocked() {
+        UUID idle = UUID.randomUUID();
+        UUID busy = UUID.randomUUID();
+        when(imageRepository.lockIdleImages(List.of(idle, busy))).thenReturn(List.of(idle));
+        when(imageRepository.reconcileCommentsCounts(List.of(idle))).thenReturn(1);
+
+        assertEquals(1, reconciler.reconcileChunk(List.of(idle, busy)));
+
+        InOrder order = inOrder(imageRepository);
+        order.verify(imageRepository).lockIdleImages(List.of(idle, busy));
+        order.verify(imageRepository).reconcileCommentsCounts(List.of(idle));
+    }
+
+    @Test
+    void reconcileChunk_allRowsBusy_skipsRecount() {
+        when(imageRepository.lockIdleImages(any())).thenReturn(List.of());
+
+        assertEquals(0, reconciler.reconcileChunk(List.of(UUID.randomUUID())));
+        verify(imageRepository, never()).reconcileCommentsCounts(any());
+    }
+}
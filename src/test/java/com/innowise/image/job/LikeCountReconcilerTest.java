@@ -0,0 +1,92 @@
+package com.innowise.image.job;
+
+import com.innowise.image.repository.CountDrift;
+import com.innowise.image.repository.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LikeCountReconcilerTest {
+
+    private ImageRepository imageRepository;
+    private ClusterJobLock clusterJobLock;
+    private TaskScheduler taskScheduler;
+    private LikeCountReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        imageRepository = mock(ImageRepository.class);
+        clusterJobLock = mock(ClusterJobLock.class);
+        taskScheduler = mock(TaskScheduler.class);
+        when(clusterJobLock.runExclusively(anyString(), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return true;
+        });
+        reconciler = new LikeCountReconciler(imageRepository, clusterJobLock, taskScheduler);
+        ReflectionTestUtils.setField(reconciler, "batchSize", 2);
+        ReflectionTestUtils.setField(reconciler, "quietPeriod", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void reconcile_defersRepairOfDriftUntilQuietPeriodHasPassed() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        CountDrift drift = drift(second, 3, 4);
+        when(imageRepository.findIdsAfter(new UUID(0L, 0L), Limit.of(2))).thenReturn(List.of(first, second));
+        when(imageRepository.findIdsAfter(second, Limit.of(2))).thenReturn(List.of());
+        when(imageRepository.findLikesCountDrift(List.of(first, second))).thenReturn(List.of(drift));
+
+        reconciler.reconcile();
+
+        verify(imageRepository, never()).repairLikesCount(any(), anyLong(), anyLong());
+        ArgumentCaptor<Runnable> repair = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(repair.capture(), any(Instant.class));
+
+        repair.getValue().run();
+        verify(imageRepository).repairLikesCount(second, 3, 4);
+    }
+
+    @Test
+    void reconcile_noDrift_schedulesNothing() {
+        when(imageRepository.findIdsAfter(new UUID(0L, 0L), Limit.of(2))).thenReturn(List.of(UUID.randomUUID()));
+
+        reconciler.reconcile();
+
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    private static CountDrift drift(UUID imageId, long recorded, long actual) {
+        return new CountDrift() {
+            @Override
+            public UUID getImageId() {
+                return imageId;
+            }
+
+            @Override
+            public long getRecorded() {
+                return recorded;
+            }
+
+            @Override
+            public long getActual() {
+                return actual;
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.innowise.image.job;
+
+import com.innowise.image.config.S3UploadProperties;
+import com.innowise.image.entity.ImageEntity;
+import com.innowise.image.repository.ImageRepository;
+import com.innowise.image.service.S3Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PendingUploadCleanerTest {
+
+    private ImageRepository imageRepository;
+    private S3Service s3Service;
+    private ClusterJobLock clusterJobLock;
+    private PendingUploadCleaner cleaner;
+
+    @BeforeEach
+    void setUp() {
+        imageRepository = mock(ImageRepository.class);
+        s3Service = mock(S3Service.class);
+        clusterJobLock = mock(ClusterJobLock.class);
+        cleaner = new PendingUploadCleaner(imageRepository, s3Service,
+                new S3UploadProperties(DataSize.ofMegabytes(8), 2, 2, Duration.ofMinutes(15), 1, DataSize.ofMegabytes(50)),
+                clusterJobLock, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(cleaner, "batchSize", 10);
+        when(clusterJobLock.runExclusively(anyString(), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    @Test
+    void removeExpiredPendingUploads_deletesLockedRowsBeforeTheirObjects() {
+        ImageEntity first = ImageEntity.builder().id(UUID.randomUUID()).s3Key("a").build();
+        ImageEntity second = ImageEntity.builder().id(UUID.randomUUID()).s3Key("b").build();
+        when(imageRepository.lockExpiredPendingUploads(any(Instant.class), anyInt())).thenReturn(List.of(first, second));
+
+        cleaner.removeExpiredPendingUploads();
+
+        InOrder order = inOrder(imageRepository, s3Service);
+        order.verify(imageRepository).deletePendingByIds(List.of(first.getId(), second.getId()));
+        order.verify(s3Service).delete("a");
+        order.verify(s3Service).delete("b");
+    }
+
+    @Test
+    void removeExpiredPendingUploads_nothingExpired_deletesNothing() {
+        when(imageRepository.lockExpiredPendingUploads(any(Instant.class), anyInt())).thenReturn(List.of());
+
+        cleaner.removeExpiredPendingUploads();
+
+        verify(imageRepository, never()).deletePendingByIds(any());
+        verifyNoInteractions(s3Service);
+    }
+
+    @Test
+    void removeExpiredPendingUploads_lockHeldByAnotherInstance_doesNothing() {
+        doReturn(false).when(clusterJobLock).runExclusively(anyString(), any());
+
+        cleaner.removeExpiredPendingUploads();
+
+        verifyNoInteractions(imageRepository, s3Service);
+    }
+}
@@ -0,0 +1,119 @@
+package com.innowise.image.kafka;
+
+import com.innowise.common.dto.event.CommentEventDto;
+import com.innowise.common.dto.event.LikeEventDto;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TopicFormatSerializerTest {
+
+    private static final String BINARY_TOPIC = "image-like-events";
+    private static final String JSON_TOPIC = "image-comment-events";
+
+    private TopicFormatSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        serializer = new TopicFormatSerializer(new JsonSerializer<>(), new BinaryEventSerializer(), Set.of(BINARY_TOPIC));
+    }
+
+    @Test
+    void serialize_binaryTopic_writesBinaryAndTagsRecord() {
+        LikeEventDto event = new LikeEventDto(UUID.randomUUID(), UUID.randomUUID(), true);
+        Headers headers = new RecordHeaders();
+
+        byte[] bytes = serializer.serialize(BINARY_TOPIC, headers, event);
+
+        assertEquals(EventFormat.BINARY_V1, EventFormat.of(headers));
+        assertEquals(35, bytes.length);
+        LikeEventDto decoded = assertInstanceOf(LikeEventDto.class,
+                new BinaryEventDeserializer().deserialize(BINARY_TOPIC, bytes));
+        assertEquals(event.getUserId(), decoded.getUserId());
+        assertEquals(event.getImageId(), decoded.getImageId());
+        assertTrue(decoded.isAdded());
+    }
+
+    @Test
+    void serialize_otherTopic_staysJson() {
+        LikeEventDto event = new LikeEventDto(UUID.randomUUID(), UUID.randomUUID(), false);
+        Headers headers = new RecordHeaders();
+
+        byte[] bytes = serializer.serialize(JSON_TOPIC, headers, event);
+
+        assertEquals(EventFormat.JSON, EventFormat.of(headers));
+        assertTrue(new String(bytes, StandardCharsets.UTF_8).contains(event.getImageId().toString()));
+    }
+
+    @Test
+    void binary_commentRoundTrip_preservesContentAndNull() {
+        BinaryEventSerializer binary = new BinaryEventSerializer();
+        BinaryEventDeserializer reader = new BinaryEventDeserializer();
+        CommentEventDto created = new CommentEventDto(
+                UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), true, "ünïcödé comment");
+        CommentEventDto deleted = new CommentEventDto(
+                UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), false, null);
+
+        CommentEventDto decoded = (CommentEventDto) reader.deserialize(JSON_TOPIC, binary.serialize(JSON_TOPIC, created));
+        CommentEventDto decodedDeleted = (CommentEventDto) reader.deserialize(JSON_TOPIC, binary.serialize(JSON_TOPIC, deleted));
+
+        assertEquals(created.getCommentId(), decoded.getCommentId());
+        assertEquals(created.getContent(), decoded.getContent());
+        assertTrue(decoded.isCreated());
+        assertNull(decodedDeleted.getContent());
+        assertFalse(decodedDeleted.isCreated());
+    }
+
+    @Test
+    void binary_rejectsUnknownVersionAndTruncatedInput() {
+        byte[] bytes = new BinaryEventSerializer().serialize(BINARY_TOPIC,
+                new LikeEventDto(UUID.randomUUID(), UUID.randomUUID(), true));
+        BinaryEventDeserializer reader = new BinaryEventDeserializer();
+
+        byte[] future = bytes.clone();
+        future[0] = 2;
+        assertThrows(SerializationException.class, () -> reader.deserialize(BINARY_TOPIC, future));
+        assertThrows(SerializationException.class,
+                () -> reader.deserialize(BINARY_TOPIC, Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deserializer_dispatchesOnHeader_defaultingToJson() {
+        Deserializer<Object> json = mock(Deserializer.class);
+        Object jsonValue = new Object();
+        when(json.deserialize(anyString(), any(Headers.class), any(byte[].class))).thenReturn(jsonValue);
+        EventFormatDeserializer deserializer = new EventFormatDeserializer(json, new BinaryEventDeserializer());
+
+        Headers binaryHeaders = new RecordHeaders();
+        LikeEventDto event = new LikeEventDto(UUID.randomUUID(), UUID.randomUUID(), true);
+        byte[] bytes = serializer.serialize(BINARY_TOPIC, binaryHeaders, event);
+
+        assertInstanceOf(LikeEventDto.class, deserializer.deserialize(BINARY_TOPIC, binaryHeaders, bytes));
+        verify(json, never()).deserialize(anyString(), any(Headers.class), any(byte[].class));
+        assertSame(jsonValue, deserializer.deserialize(JSON_TOPIC, new RecordHeaders(), new byte[] {'{', '}'}));
+    }
+}
@@ -0,0 +1,82 @@
+package com.innowise.image.mapper;
+
+import com.innowise.image.dto.CommentDto;
+import com.innowise.image.dto.ImageDto;
+import com.innowise.image.entity.CommentEntity;
+import com.innowise.image.entity.ImageEntity;
+import com.innowise.image.entity.ImageStatus;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The explicit mappers replaced ModelMapper; these tests pin them to its output.
+ */
+class EntityMapperEquivalenceTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    void imageMapper_matchesModelMapper() {
+        ImageEntity image = ImageEntity.builder()
+                .id(UUID.randomUUID())
+                .url("http://localhost/images/key.jpg")
+                .description("sunset")
+                .uploadedAt(Instant.parse("2024-05-01T10:15:30Z"))
+                .userId(UUID.randomUUID())
+                .likesCount(7)
+                .s3Key("key.jpg")
+                .status(ImageStatus.READY)
+                .variantsReady(true)
+                .contentSha256("ab".repeat(32))
+                .build();
+
+        assertThat(new ImageMapper().toDto(image))
+                .usingRecursiveComparison()
+                .isEqualTo(modelMapper.map(image, ImageDto.class));
+    }
+
+    @Test
+    void imageMapper_matchesModelMapper_forSparseEntity() {
+        ImageEntity image = ImageEntity.builder().id(UUID.randomUUID()).build();
+
+        assertThat(new ImageMapper().toDto(image))
+                .usingRecursiveComparison()
+                .isEqualTo(modelMapper.map(image, ImageDto.class));
+    }
+
+    @Test
+    void commentMapper_matchesModelMapper() {
+        CommentEntity comment = CommentEntity.builder()
+                .id(UUID.randomUUID())
+                .imageId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .authorName("alice")
+                .content("nice")
+                .createdAt(Instant.parse("2024-05-01T10:15:30Z"))
+                .build();
+
+        assertThat(new CommentMapper().toDto(comment))
+                .usingRecursiveComparison()
+                .isEqualTo(modelMapper.map(comment, CommentDto.class));
+    }
+
+    @Test
+    void commentMapper_matchesModelMapper_withoutAuthorName() {
+        CommentEntity comment = CommentEntity.builder()
+                .id(UUID.randomUUID())
+                .imageId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .content("legacy")
+                .createdAt(Instant.now())
+                .build();
+
+        assertThat(new CommentMapper().toDto(comment))
+                .usingRecursiveComparison()
+                .isEqualTo(modelMapper.map(comment, CommentDto.class));
+    }
+}
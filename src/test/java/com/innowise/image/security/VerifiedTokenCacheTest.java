@@ -0,0 +1,88 @@
+package com.innowise.image.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.common.security.JwtUtil;
+import com.innowise.image.config.JwtCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTest {
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache cache;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = mock(JwtUtil.class);
+        cache = new VerifiedTokenCache(jwtUtil, new ObjectMapper(),
+                new JwtCacheProperties(100, Duration.ofMinutes(15)), new SimpleMeterRegistry());
+        userId = UUID.randomUUID();
+        when(jwtUtil.validateToken(anyString())).thenReturn(true);
+        when(jwtUtil.extractUserId(anyString())).thenReturn(userId);
+        when(jwtUtil.extractUsername(anyString())).thenReturn("alice");
+    }
+
+    @Test
+    void verify_validToken_parsesOncePerToken() {
+        String token = token(Instant.now().plusSeconds(600));
+
+        JwtPrincipal first = cache.verify(token);
+        JwtPrincipal second = cache.verify(token);
+
+        assertEquals(new JwtPrincipal(userId, "alice"), first);
+        assertEquals(first, second);
+        verify(jwtUtil, times(1)).validateToken(token);
+        verify(jwtUtil, times(1)).extractUserId(token);
+    }
+
+    @Test
+    void verify_expiredToken_isNotCached() {
+        String token = token(Instant.now().minusSeconds(5));
+
+        cache.verify(token);
+        cache.verify(token);
+
+        verify(jwtUtil, times(2)).validateToken(token);
+    }
+
+    @Test
+    void verify_invalidToken_returnsNullAndIsRetried() {
+        String token = token(Instant.now().plusSeconds(600));
+        when(jwtUtil.validateToken(token)).thenReturn(false);
+
+        assertNull(cache.verify(token));
+        assertNull(cache.verify(token));
+        verify(jwtUtil, times(2)).validateToken(token);
+    }
+
+    @Test
+    void verify_parserThrows_returnsNull() {
+        when(jwtUtil.validateToken(anyString())).thenThrow(new IllegalArgumentException("malformed"));
+
+        assertNull(cache.verify("not-a-jwt"));
+    }
+
+    private static String token(Instant exp) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(("{\"sub\":\"alice\",\"exp\":" + exp.getEpochSecond() + "}")
+                .getBytes(StandardCharsets.UTF_8));
+        return header + "." + payload + ".signature";
+    }
+}
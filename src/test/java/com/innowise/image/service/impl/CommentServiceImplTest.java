@@ -1,28 +1,43 @@
 package com.innowise.image.service.impl;
 
-import com.innowise.image.client.AuthServiceClient;
 import com.innowise.image.dto.CommentDto;
+import com.innowise.image.dto.CursorPageResponseDto;
+import com.innowise.image.dto.KeysetCursor;
 import com.innowise.image.entity.CommentEntity;
 import com.innowise.image.exception.NotFoundException;
+import com.innowise.image.mapper.CommentMapper;
 import com.innowise.image.repository.CommentRepository;
-import com.innowise.image.service.KafkaProducerService;
+import com.innowise.image.repository.ImageCount;
+import com.innowise.image.repository.ImageRepository;
+import com.innowise.image.service.OutboxService;
+import com.innowise.image.service.UsernameResolver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.modelmapper.ModelMapper;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,13 +48,19 @@ class CommentServiceImplTest {
     private CommentRepository commentRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private ImageRepository imageRepository;
+
+    @Spy
+    private CommentMapper commentMapper = new CommentMapper();
+
+    @Mock
+    private UsernameResolver usernameResolver;
 
     @Mock
-    private AuthServiceClient authServiceClient;
+    private OutboxService outboxService;
 
     @Mock
-    private KafkaProducerService kafkaProducerService;
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private CommentServiceImpl commentService;
@@ -68,23 +89,37 @@ class CommentServiceImplTest {
         savedEntity.setContent("Hello");
 
         when(commentRepository.save(any(CommentEntity.class))).thenReturn(savedEntity);
-        when(modelMapper.map(any(CommentEntity.class), eq(CommentDto.class)))
-                .thenAnswer(invocation -> {
-                    CommentEntity entity = invocation.getArgument(0);
-                    CommentDto dto = new CommentDto();
-                    dto.setId(entity.getId());
-                    dto.setContent(entity.getContent());
-                    return dto;
-                });
 
-        CommentDto result = commentService.addComment(imageId, userId, request);
+        CommentDto result = commentService.addComment(imageId, userId, "alice", request);
 
         assertNotNull(result);
         assertEquals("Hello", result.getContent());
         verify(commentRepository, times(1)).save(any(CommentEntity.class));
-        verify(modelMapper, times(1)).map(any(CommentEntity.class), eq(CommentDto.class));
-        verify(kafkaProducerService, times(1))
-                .sendCommentEvent(eq(userId), eq(imageId), any(UUID.class), eq("Hello"), eq(true));
+        verify(commentMapper, times(1)).toDto(any(CommentEntity.class));
+        verify(outboxService, times(1))
+                .enqueueCommentEvent(eq(userId), eq(imageId), any(UUID.class), eq("Hello"), eq(true));
+        verify(commentRepository).save(argThat(entity -> "alice".equals(entity.getAuthorName())));
+        verify(imageRepository).adjustCommentsCount(imageId, 1);
+        verify(usernameResolver, never()).resolve(any());
+    }
+
+    @Test
+    void addComment_renamedAuthor_publishesRefresh() {
+        CommentDto request = new CommentDto();
+        request.setContent("Hello");
+
+        CommentEntity savedEntity = new CommentEntity();
+        savedEntity.setId(UUID.randomUUID());
+        savedEntity.setImageId(imageId);
+        savedEntity.setUserId(userId);
+        savedEntity.setContent("Hello");
+
+        when(commentRepository.save(any(CommentEntity.class))).thenReturn(savedEntity);
+        when(commentRepository.hasStaleAuthorName(userId, "alice")).thenReturn(true);
+
+        commentService.addComment(imageId, userId, "alice", request);
+
+        verify(eventPublisher).publishEvent(new AuthorNameChanged(userId, "alice"));
     }
 
     @Test
@@ -100,20 +135,36 @@ class CommentServiceImplTest {
 
         when(commentRepository.findByIdAndImageIdAndUserIdOrderByCreatedAtDesc(commentId, imageId, userId))
                 .thenReturn(Optional.of(existing));
-        when(modelMapper.map(any(CommentEntity.class), eq(CommentDto.class)))
-                .thenAnswer(invocation -> {
-                    CommentEntity entity = invocation.getArgument(0);
-                    CommentDto dto = new CommentDto();
-                    dto.setId(entity.getId());
-                    dto.setContent(entity.getContent());
-                    return dto;
-                });
 
-        CommentDto result = commentService.updateComment(imageId, commentId, userId, request);
+        when(commentRepository.hasStaleAuthorName(userId, "alice")).thenReturn(true);
+
+        CommentDto result = commentService.updateComment(imageId, commentId, userId, "alice", request);
 
         assertNotNull(result);
         assertEquals("Updated", result.getContent());
+        assertEquals("alice", existing.getAuthorName());
         verify(commentRepository, times(1)).save(existing);
+        verify(eventPublisher, times(1)).publishEvent(new AuthorNameChanged(userId, "alice"));
+    }
+
+    @Test
+    void updateComment_sameAuthorName_skipsRefresh() {
+        CommentDto request = new CommentDto();
+        request.setContent("Updated");
+
+        CommentEntity existing = new CommentEntity();
+        existing.setId(commentId);
+        existing.setImageId(imageId);
+        existing.setUserId(userId);
+        existing.setAuthorName("alice");
+        existing.setContent("Old");
+
+        when(commentRepository.findByIdAndImageIdAndUserIdOrderByCreatedAtDesc(commentId, imageId, userId))
+                .thenReturn(Optional.of(existing));
+
+        commentService.updateComment(imageId, commentId, userId, "alice", request);
+
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -123,7 +174,7 @@ class CommentServiceImplTest {
 
         CommentDto commentDto = new CommentDto();
         assertThrows(NotFoundException.class,
-                () -> commentService.updateComment(imageId, commentId, userId, commentDto));
+                () -> commentService.updateComment(imageId, commentId, userId, "alice", commentDto));
     }
 
     @Test
@@ -139,8 +190,35 @@ class CommentServiceImplTest {
         commentService.deleteComment(imageId, commentId, userId);
 
         verify(commentRepository, times(1)).delete(existing);
-        verify(kafkaProducerService, times(1))
-                .sendCommentEvent(eq(userId), eq(imageId), eq(commentId), anyString(), eq(false));
+        verify(imageRepository).adjustCommentsCount(imageId, -1);
+        verify(outboxService, times(1))
+                .enqueueCommentEvent(eq(userId), eq(imageId), eq(commentId), anyString(), eq(false));
+    }
+
+    @Test
+    void countComments_readsDenormalizedCounter() {
+        when(imageRepository.findCommentsCountById(imageId)).thenReturn(Optional.of(7));
+
+        assertEquals(7, commentService.countComments(imageId));
+        verify(commentRepository, never()).findAllByImageIdOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    void countComments_unknownImage_throwsNotFound() {
+        when(imageRepository.findCommentsCountById(imageId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> commentService.countComments(imageId));
+    }
+
+    @Test
+    void countComments_batch_mapsCountsById() {
+        UUID other = UUID.randomUUID();
+        ImageCount count = mock(ImageCount.class);
+        when(count.getImageId()).thenReturn(imageId);
+        when(count.getTotal()).thenReturn(3L);
+        when(imageRepository.findCommentsCounts(List.of(imageId, other))).thenReturn(List.of(count));
+
+        assertEquals(Map.of(imageId, 3), commentService.countComments(List.of(imageId, other)));
     }
 
     @Test
@@ -161,22 +239,64 @@ class CommentServiceImplTest {
         c2.setId(UUID.randomUUID());
         c2.setContent("c2");
 
+        c1.setUserId(userId);
+        c2.setUserId(UUID.randomUUID());
+        c2.setAuthorName("bob");
+
         List<CommentEntity> list = List.of(c1, c2);
 
         when(commentRepository.findAllByImageIdOrderByCreatedAtDesc(imageId)).thenReturn(list);
-        when(modelMapper.map(any(CommentEntity.class), eq(CommentDto.class)))
-                .thenAnswer(invocation -> {
-                    CommentEntity entity = invocation.getArgument(0);
-                    CommentDto dto = new CommentDto();
-                    dto.setId(entity.getId());
-                    dto.setContent(entity.getContent());
-                    return dto;
-                });
+        when(usernameResolver.resolveAll(any())).thenReturn(Map.of(userId, "alice"));
 
         List<CommentDto> result = commentService.listComments(imageId);
 
         assertEquals(2, result.size());
         assertEquals("c1", result.get(0).getContent());
         assertEquals("c2", result.get(1).getContent());
+        assertEquals("alice", result.get(0).getAuthorName());
+        assertEquals("bob", result.get(1).getAuthorName());
+        verify(usernameResolver, times(1)).resolveAll(List.of(userId));
+    }
+
+    @Test
+    void listCommentsByCursor_firstPage_returnsNextCursor() {
+        List<CommentEntity> rows = List.of(
+                comment(Instant.parse("2024-01-03T00:00:00Z")),
+                comment(Instant.parse("2024-01-02T00:00:00Z")),
+                comment(Instant.parse("2024-01-01T00:00:00Z")));
+        when(commentRepository.findByImageIdOrderByCreatedAtDescIdDesc(imageId, Limit.of(3))).thenReturn(rows);
+
+        CursorPageResponseDto<CommentDto> page = commentService.listComments(imageId, "", 2);
+
+        assertEquals(2, page.getContent().size());
+        assertFalse(page.isLast());
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(rows.get(1).getCreatedAt(), next.timestamp());
+        assertEquals(rows.get(1).getId(), next.id());
+    }
+
+    @Test
+    void listCommentsByCursor_seeksPastCursorAndCapsPageSize() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2024-01-02T00:00:00Z"), UUID.randomUUID());
+        when(commentRepository.findPageAfter(imageId, cursor.timestamp(), cursor.id(), Limit.of(101)))
+                .thenReturn(List.of(comment(Instant.parse("2024-01-01T00:00:00Z"))));
+
+        CursorPageResponseDto<CommentDto> page = commentService.listComments(imageId, cursor.encode(), 5000);
+
+        assertEquals(1, page.getContent().size());
+        assertEquals(100, page.getSize());
+        assertTrue(page.isLast());
+        assertNull(page.getNextCursor());
+    }
+
+    private CommentEntity comment(Instant createdAt) {
+        return CommentEntity.builder()
+                .id(UUID.randomUUID())
+                .imageId(imageId)
+                .userId(userId)
+                .authorName("alice")
+                .content("c")
+                .createdAt(createdAt)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.dto.CursorPageResponseDto;
+import com.innowise.image.dto.ImageCardDto;
+import com.innowise.image.dto.ImageDto;
+import com.innowise.image.repository.ImageCount;
+import com.innowise.image.repository.ImageRepository;
+import com.innowise.image.repository.LikeRepository;
+import com.innowise.image.service.ImageService;
+import com.innowise.image.service.UsernameResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class FeedServiceImplTest {
+
+    @Mock
+    private ImageService imageService;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private LikeCountAggregator likeCountAggregator;
+
+    @Mock
+    private UsernameResolver usernameResolver;
+
+    @InjectMocks
+    private FeedServiceImpl feedService;
+
+    private UUID viewerId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        viewerId = UUID.randomUUID();
+    }
+
+    @Test
+    void getFeed_enrichesWholePageWithOneLookupPerKind() {
+        UUID authorId = UUID.randomUUID();
+        ImageDto first = image(authorId);
+        ImageDto second = image(authorId);
+        List<UUID> ids = List.of(first.getId(), second.getId());
+        when(imageService.getAllImages("cursor", 2)).thenReturn(CursorPageResponseDto.<ImageDto>builder()
+                .content(List.of(first, second))
+                .size(2)
+                .nextCursor("next")
+                .last(false)
+                .build());
+        when(imageRepository.findLikesCounts(ids)).thenReturn(List.of(count(first.getId(), 5), count(second.getId(), 0)));
+        when(likeCountAggregator.pendingDelta(first.getId())).thenReturn(1L);
+        when(likeCountAggregator.pendingDelta(second.getId())).thenReturn(-1L);
+        when(imageRepository.findCommentsCounts(ids)).thenReturn(List.of(count(first.getId(), 3)));
+        when(usernameResolver.resolveAll(anyCollection())).thenReturn(Map.of(authorId, "bob"));
+        when(likeRepository.findLikedImageIds(viewerId, ids)).thenReturn(Set.of(second.getId()));
+
+        CursorPageResponseDto<ImageCardDto> result = feedService.getFeed(viewerId, "cursor", 2);
+
+        ImageCardDto firstCard = result.getContent().get(0);
+        ImageCardDto secondCard = result.getContent().get(1);
+        assertEquals(first.getId(), firstCard.getId());
+        assertEquals("bob", firstCard.getAuthorName());
+        assertEquals(6, firstCard.getLikesCount());
+        assertEquals(3, firstCard.getCommentsCount());
+        assertFalse(firstCard.isLikedByMe());
+        assertEquals(0, secondCard.getLikesCount());
+        assertEquals(0, secondCard.getCommentsCount());
+        assertTrue(secondCard.isLikedByMe());
+        assertEquals("next", result.getNextCursor());
+        assertFalse(result.isLast());
+        verify(imageRepository, times(1)).findLikesCounts(any());
+        verify(imageRepository, times(1)).findCommentsCounts(any());
+        verify(likeRepository, times(1)).findLikedImageIds(any(), any());
+        verify(usernameResolver, times(1)).resolveAll(anyCollection());
+        verify(usernameResolver, never()).resolve(any());
+    }
+
+    @Test
+    void getFeed_emptyPage_skipsEnrichment() {
+        when(imageService.getAllImages(null, 20)).thenReturn(CursorPageResponseDto.<ImageDto>builder()
+                .content(List.of())
+                .size(20)
+                .last(true)
+                .build());
+
+        CursorPageResponseDto<ImageCardDto> result = feedService.getFeed(viewerId, null, 20);
+
+        assertTrue(result.getContent().isEmpty());
+        assertTrue(result.isLast());
+        verifyNoInteractions(imageRepository, likeRepository, usernameResolver);
+    }
+
+    private static ImageDto image(UUID authorId) {
+        return ImageDto.builder()
+                .id(UUID.randomUUID())
+                .url("http://localhost/images/" + UUID.randomUUID())
+                .uploadedAt(Instant.now())
+                .userId(authorId)
+                .build();
+    }
+
+    private static ImageCount count(UUID imageId, long count) {
+        return new ImageCount() {
+            @Override
+            public UUID getImageId() {
+                return imageId;
+            }
+
+            @Override
+            public long getTotal() {
+                return count;
+            }
+        };
+    }
+}
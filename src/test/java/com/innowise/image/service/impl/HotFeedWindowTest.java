@@ -0,0 +1,169 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.HotFeedProperties;
+import com.innowise.image.dto.ImageChangeEvent;
+import com.innowise.image.dto.KeysetCursor;
+import com.innowise.image.entity.ImageEntity;
+import com.innowise.image.entity.ImageStatus;
+import com.innowise.image.repository.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotFeedWindowTest {
+
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    private ImageRepository imageRepository;
+    private HotFeedWindow window;
+    private List<ImageEntity> stored;
+
+    @BeforeEach
+    void setUp() {
+        imageRepository = mock(ImageRepository.class);
+        window = new HotFeedWindow(imageRepository, new HotFeedProperties(4));
+        stored = new ArrayList<>();
+        for (int i = 10; i > 0; i--) {
+            stored.add(image(BASE.plusSeconds(i)));
+        }
+        when(imageRepository.findAllByOrderByUploadedAtDescIdDesc(Limit.of(4))).thenReturn(stored.subList(0, 4));
+        when(imageRepository.countReady()).thenReturn((long) stored.size());
+    }
+
+    @Test
+    void beforeSeeding_fallsBackToDatabase() {
+        assertTrue(window.page(PageRequest.of(0, 2)).isEmpty());
+        assertTrue(window.newest(null, 2).isEmpty());
+    }
+
+    @Test
+    void page_withinWindow_servedWithTotal() {
+        window.resync();
+
+        Page<ImageEntity> page = window.page(PageRequest.of(1, 2)).orElseThrow();
+
+        assertEquals(stored.subList(2, 4), page.getContent());
+        assertEquals(10, page.getTotalElements());
+        assertTrue(window.page(PageRequest.of(1, 3)).isEmpty());
+        assertTrue(window.page(PageRequest.of(0, 2, Sort.by("description"))).isEmpty());
+    }
+
+    @Test
+    void page_pastEndOfSmallFeed_servedEmpty() {
+        when(imageRepository.countReady()).thenReturn(4L);
+        window.resync();
+
+        Page<ImageEntity> page = window.page(PageRequest.of(3, 2)).orElseThrow();
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(4, page.getTotalElements());
+    }
+
+    @Test
+    void newest_continuesAfterCursor() {
+        window.resync();
+        ImageEntity second = stored.get(1);
+
+        List<ImageEntity> next = window.newest(new KeysetCursor(second.getUploadedAt(), second.getId()), 2)
+                .orElseThrow();
+
+        assertEquals(stored.subList(2, 4), next);
+        assertTrue(window.newest(new KeysetCursor(second.getUploadedAt(), second.getId()), 3).isEmpty());
+    }
+
+    @Test
+    void created_isInsertedAtHeadAndOldestDropped() {
+        window.resync();
+        ImageEntity fresh = image(BASE.plusSeconds(60));
+        when(imageRepository.findById(fresh.getId())).thenReturn(Optional.of(fresh));
+
+        window.onImageChange(new ImageChangeEvent(fresh.getId(), ImageChangeEvent.Type.CREATED, UUID.randomUUID()));
+
+        Page<ImageEntity> page = window.page(PageRequest.of(0, 4)).orElseThrow();
+        assertEquals(List.of(fresh, stored.get(0), stored.get(1), stored.get(2)), page.getContent());
+        assertEquals(11, page.getTotalElements());
+    }
+
+    @Test
+    void created_twice_countedOnce() {
+        window.resync();
+        ImageEntity fresh = image(BASE.plusSeconds(60));
+        when(imageRepository.findById(fresh.getId())).thenReturn(Optional.of(fresh));
+        ImageChangeEvent event = new ImageChangeEvent(fresh.getId(), ImageChangeEvent.Type.CREATED, UUID.randomUUID());
+
+        window.onImageChange(event);
+        window.onImageChange(event);
+
+        assertEquals(11, window.page(PageRequest.of(0, 2)).orElseThrow().getTotalElements());
+    }
+
+    @Test
+    void created_loadsWithoutBlockingConcurrentChanges() {
+        window.resync();
+        ImageEntity first = stored.get(0);
+        ImageEntity fresh = image(BASE.plusSeconds(60));
+        when(imageRepository.findById(fresh.getId())).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> window.onImageChange(
+                    new ImageChangeEvent(first.getId(), ImageChangeEvent.Type.DELETED, UUID.randomUUID())))
+                    .get(5, TimeUnit.SECONDS);
+            return Optional.of(fresh);
+        });
+
+        window.onImageChange(new ImageChangeEvent(fresh.getId(), ImageChangeEvent.Type.CREATED, UUID.randomUUID()));
+
+        Page<ImageEntity> page = window.page(PageRequest.of(0, 4)).orElseThrow();
+        assertEquals(List.of(fresh, stored.get(1), stored.get(2), stored.get(3)), page.getContent());
+        assertEquals(10, page.getTotalElements());
+    }
+
+    @Test
+    void deleted_isRemovedFromWindow() {
+        window.resync();
+        ImageEntity first = stored.get(0);
+
+        window.onImageChange(new ImageChangeEvent(first.getId(), ImageChangeEvent.Type.DELETED, UUID.randomUUID()));
+
+        Page<ImageEntity> page = window.page(PageRequest.of(0, 3)).orElseThrow();
+        assertEquals(stored.subList(1, 4), page.getContent());
+        assertEquals(9, page.getTotalElements());
+        assertTrue(window.page(PageRequest.of(0, 4)).isEmpty());
+    }
+
+    @Test
+    void updated_outsideWindow_isIgnored() {
+        window.resync();
+        UUID older = stored.get(8).getId();
+
+        window.onImageChange(new ImageChangeEvent(older, ImageChangeEvent.Type.UPDATED, UUID.randomUUID()));
+
+        verify(imageRepository, never()).findById(older);
+    }
+
+    private static ImageEntity image(Instant uploadedAt) {
+        return ImageEntity.builder()
+                .id(UUID.randomUUID())
+                .url("http://localhost/images/" + uploadedAt.getEpochSecond())
+                .uploadedAt(uploadedAt)
+                .userId(UUID.randomUUID())
+                .status(ImageStatus.READY)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.entity.ImageEntity;
+import com.innowise.image.repository.ImageBlobRepository;
+import com.innowise.image.service.S3Service;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageBlobRegistryTest {
+
+    private ImageBlobRepository imageBlobRepository;
+    private S3Service s3Service;
+    private ImageContentCache imageContentCache;
+    private ImageBlobRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        imageBlobRepository = mock(ImageBlobRepository.class);
+        s3Service = mock(S3Service.class);
+        imageContentCache = mock(ImageContentCache.class);
+        registry = new ImageBlobRegistry(imageBlobRepository, s3Service, imageContentCache);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void reference_returnsKeyOfStoredBlob() {
+        when(imageBlobRepository.findS3KeyBySha256("abc")).thenReturn("first-upload.png");
+
+        assertEquals("first-upload.png", registry.reference("abc", "second-upload.png"));
+        verify(imageBlobRepository).addReference("abc", "second-upload.png");
+    }
+
+    @Test
+    void release_stillReferenced_keepsObject() {
+        when(imageBlobRepository.deleteIfUnreferenced("abc")).thenReturn(0);
+
+        registry.release(ImageEntity.builder().s3Key("key").contentSha256("abc").build());
+        commit();
+
+        verify(imageBlobRepository).removeReference("abc");
+        verify(s3Service, never()).delete(any());
+    }
+
+    @Test
+    void release_lastReference_deletesObjectAndVariantsAfterCommit() {
+        when(imageBlobRepository.deleteIfUnreferenced("abc")).thenReturn(1);
+
+        registry.release(ImageEntity.builder().s3Key("key").contentSha256("abc").build());
+        verify(s3Service, never()).delete(any());
+        commit();
+
+        verify(s3Service).delete("key");
+        verify(s3Service).delete("key-thumb.jpg");
+        verify(s3Service).delete("key-medium.jpg");
+        verify(s3Service).delete("key-large.jpg");
+        verify(imageContentCache).evict("key");
+    }
+
+    @Test
+    void release_withoutDigest_deletesOwnedObject() {
+        registry.release(ImageEntity.builder().s3Key("presigned-key").build());
+        commit();
+
+        verify(imageBlobRepository, never()).removeReference(any());
+        verify(s3Service).delete("presigned-key");
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+}
@@ -0,0 +1,94 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.KafkaTopics;
+import com.innowise.image.dto.ImageChangeEvent;
+import com.innowise.image.service.KafkaProducerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ImageChangeBroadcasterTest {
+
+    private KafkaProducerService kafkaProducerService;
+    private ImageChangeListener first;
+    private ImageChangeListener second;
+    private ImageChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        kafkaProducerService = mock(KafkaProducerService.class);
+        when(kafkaProducerService.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        first = mock(ImageChangeListener.class);
+        second = mock(ImageChangeListener.class);
+        broadcaster = new ImageChangeBroadcaster(kafkaProducerService, List.of(first, second));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publish_appliesLocallyAndBroadcasts_evenIfAListenerFails() {
+        UUID imageId = UUID.randomUUID();
+        doThrow(new IllegalStateException("boom")).when(first).onImageChange(any());
+
+        broadcaster.publishAfterCommit(imageId, ImageChangeEvent.Type.DELETED);
+
+        ArgumentCaptor<ImageChangeEvent> event = ArgumentCaptor.forClass(ImageChangeEvent.class);
+        verify(second).onImageChange(event.capture());
+        assertEquals(imageId, event.getValue().imageId());
+        assertEquals(ImageChangeEvent.Type.DELETED, event.getValue().type());
+        verify(kafkaProducerService).send(eq(KafkaTopics.IMAGE_CHANGES), eq(imageId.toString()), eq(event.getValue()));
+    }
+
+    @Test
+    void publish_insideTransaction_waitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        broadcaster.publishAfterCommit(UUID.randomUUID(), ImageChangeEvent.Type.UPDATED);
+        verifyNoInteractions(first, kafkaProducerService);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        verify(first).onImageChange(any());
+        verify(kafkaProducerService).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void onRemoteChange_ignoresOwnEchoAndAppliesOthers() {
+        UUID imageId = UUID.randomUUID();
+        broadcaster.publishAfterCommit(imageId, ImageChangeEvent.Type.UPDATED);
+        ArgumentCaptor<ImageChangeEvent> own = ArgumentCaptor.forClass(ImageChangeEvent.class);
+        verify(first).onImageChange(own.capture());
+
+        broadcaster.onRemoteChange(own.getValue());
+        verify(second, never()).onImageChange(new ImageChangeEvent(imageId, ImageChangeEvent.Type.DELETED, null));
+
+        ImageChangeEvent foreign = new ImageChangeEvent(imageId, ImageChangeEvent.Type.DELETED, UUID.randomUUID());
+        broadcaster.onRemoteChange(foreign);
+        verify(first).onImageChange(foreign);
+        verify(first, org.mockito.Mockito.times(2)).onImageChange(any());
+    }
+}
@@ -0,0 +1,133 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.ImageContentCacheProperties;
+import com.innowise.image.config.S3Properties;
+import com.innowise.image.exception.NotFoundException;
+import com.innowise.image.service.ImageContentService.ImageContent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageContentCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private S3Client s3Client;
+    private ImageContentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        s3Client = mock(S3Client.class);
+        S3Properties s3Properties = new S3Properties("http://localhost", "us-east-1", "bucket", "key", "secret", null);
+        cache = new ImageContentCache(s3Client, s3Properties,
+                new ImageContentCacheProperties(tempDir, DataSize.ofBytes(1024), Duration.ZERO),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void get_repeatedReads_downloadOnce() throws Exception {
+        stubObject("hello", "\"etag-1\"");
+
+        ImageContent first = cache.get("a.png");
+        ImageContent second = cache.get("a.png");
+
+        assertEquals(first, second);
+        assertEquals("hello", Files.readString(first.path()));
+        assertEquals(5, first.length());
+        assertEquals("image/png", first.contentType());
+        assertEquals("\"etag-1\"", first.eTag());
+        verify(s3Client, times(1)).getObject(any(GetObjectRequest.class), any(ResponseTransformer.class));
+    }
+
+    @Test
+    void get_concurrentMisses_shareOneDownload() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(s3Client.getObject(any(GetObjectRequest.class), any(ResponseTransformer.class))).thenAnswer(inv -> {
+            release.await();
+            return writeObject(inv, "shared", "\"etag\"");
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ImageContent>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> cache.get("hot.png")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<ImageContent> result : results) {
+                assertEquals("shared", Files.readString(result.get().path()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(s3Client, times(1)).getObject(any(GetObjectRequest.class), any(ResponseTransformer.class));
+    }
+
+    @Test
+    void evict_removesFileAndRefetches() throws Exception {
+        stubObject("hello", "\"etag-1\"");
+        ImageContent first = cache.get("a.png");
+
+        cache.evict("a.png");
+        ImageContent second = cache.get("a.png");
+
+        Thread.sleep(100);
+        assertFalse(Files.exists(first.path()));
+        assertEquals("hello", Files.readString(second.path()));
+        verify(s3Client, times(2)).getObject(any(GetObjectRequest.class), any(ResponseTransformer.class));
+    }
+
+    @Test
+    void get_missingObject_throwsNotFoundAndDoesNotCacheFailure() {
+        when(s3Client.getObject(any(GetObjectRequest.class), any(ResponseTransformer.class)))
+                .thenThrow(NoSuchKeyException.builder().message("missing").build());
+
+        assertThrows(NotFoundException.class, () -> cache.get("gone.png"));
+        assertThrows(NotFoundException.class, () -> cache.get("gone.png"));
+        verify(s3Client, times(2)).getObject(any(GetObjectRequest.class), any(ResponseTransformer.class));
+    }
+
+    private void stubObject(String body, String eTag) {
+        when(s3Client.getObject(any(GetObjectRequest.class), any(ResponseTransformer.class)))
+                .thenAnswer(inv -> writeObject(inv, body, eTag));
+    }
+
+    private static GetObjectResponse writeObject(InvocationOnMock inv, String body, String eTag)
+            throws Exception {
+        ResponseTransformer<GetObjectResponse, GetObjectResponse> transformer = inv.getArgument(1);
+        GetObjectResponse response = GetObjectResponse.builder().contentType("image/png").eTag(eTag).build();
+        return transformer.transform(response, AbortableInputStream.create(
+                new ByteArrayInputStream(body.getBytes())));
+    }
+}
@@ -0,0 +1,115 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.ImageMetadataCacheProperties;
+import com.innowise.image.dto.ImageChangeEvent;
+import com.innowise.image.dto.ImageDto;
+import com.innowise.image.service.impl.ImageMetadataCache.CachedImage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageMetadataCacheTest {
+
+    private ImageMetadataCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ImageMetadataCache(
+                new ImageMetadataCacheProperties(DataSize.ofKilobytes(64), Duration.ofMinutes(5), 10),
+                new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_loadsOnceAndRecordsHits() {
+        UUID id = UUID.randomUUID();
+
+        CachedImage first = cache.get(id, loader());
+        CachedImage second = cache.get(id, loader());
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void get_missingImage_isNotCached() {
+        UUID id = UUID.randomUUID();
+        Function<UUID, CachedImage> missing = key -> {
+            loads.incrementAndGet();
+            return null;
+        };
+
+        assertNull(cache.get(id, missing));
+        assertNull(cache.get(id, missing));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onImageChange_dropsEntry() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, loader());
+
+        cache.onImageChange(new ImageChangeEvent(id, ImageChangeEvent.Type.UPDATED, UUID.randomUUID()));
+        cache.get(id, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void weightBound_evictsColdEntries() {
+        for (int i = 0; i < 500; i++) {
+            cache.get(UUID.randomUUID(), loader());
+        }
+
+        assertTrue(cache.weightedSize() <= cache.maximumWeight());
+        assertTrue(cache.stats().evictionCount() > 0);
+    }
+
+    @Test
+    void hottest_isBoundedByLimit() {
+        UUID hot = UUID.randomUUID();
+        for (int i = 0; i < 10; i++) {
+            cache.get(hot, loader());
+        }
+        cache.get(UUID.randomUUID(), loader());
+        cache.get(UUID.randomUUID(), loader());
+
+        assertEquals(2, cache.hottest(2).size());
+        assertTrue(cache.hottest(3).containsKey(hot));
+    }
+
+    @Test
+    void weigh_accountsForStringsAndVariants() {
+        ImageDto bare = ImageDto.builder().url("u").build();
+        ImageDto withVariants = ImageDto.builder().url("u").variantUrls(Map.of("thumb", "x".repeat(100))).build();
+
+        assertTrue(ImageMetadataCache.weigh(withVariants) > ImageMetadataCache.weigh(bare) + 200);
+    }
+
+    private Function<UUID, CachedImage> loader() {
+        return id -> {
+            loads.incrementAndGet();
+            return new CachedImage(ImageDto.builder()
+                    .id(id)
+                    .url("http://localhost/images/" + id)
+                    .description("x".repeat(200))
+                    .build(), Instant.now());
+        };
+    }
+}
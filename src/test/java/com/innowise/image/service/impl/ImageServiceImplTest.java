@@ -1,51 +1,106 @@
 package com.innowise.image.service.impl;
 
+import com.innowise.image.config.ImageMetadataCacheProperties;
+import com.innowise.image.dto.CursorPageResponseDto;
+import com.innowise.image.dto.ImageChangeEvent;
 import com.innowise.image.dto.ImageDto;
+import com.innowise.image.dto.KeysetCursor;
+import com.innowise.image.dto.PresignedUploadDto;
+import com.innowise.image.dto.PresignedUploadRequestDto;
 import com.innowise.image.dto.UploadResponseDto;
 import com.innowise.image.entity.ImageEntity;
+import com.innowise.image.entity.ImageStatus;
+import com.innowise.image.exception.BadRequestException;
+import com.innowise.image.exception.ConflictException;
+import com.innowise.image.exception.ForbiddenException;
 import com.innowise.image.exception.NotFoundException;
+import com.innowise.image.mapper.ImageMapper;
+import com.innowise.image.repository.CommentRepository;
 import com.innowise.image.repository.ImageRepository;
+import com.innowise.image.repository.LikeRepository;
 import com.innowise.image.service.ImageService;
+import com.innowise.image.service.S3Service;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class ImageServiceImplTest {
 
     private ImageRepository imageRepository;
     private S3Client s3Client;
+    private S3StreamingUploader s3StreamingUploader;
+    private S3AsyncUploader s3AsyncUploader;
+    private S3Service s3Service;
+    private ImageVariantGenerator imageVariantGenerator;
+    private ImageBlobRegistry imageBlobRegistry;
+    private LikeRepository likeRepository;
+    private CommentRepository commentRepository;
+    private ImageChangeBroadcaster imageChangeBroadcaster;
+    private HotFeedWindow hotFeedWindow;
     private ImageService imageService;
 
     @BeforeEach
     void setUp() {
         imageRepository = mock(ImageRepository.class);
         s3Client = mock(S3Client.class);
-        ModelMapper modelMapper = new ModelMapper();
-        imageService = new ImageServiceImpl(imageRepository, modelMapper, s3Client);
+        s3StreamingUploader = mock(S3StreamingUploader.class);
+        s3AsyncUploader = mock(S3AsyncUploader.class);
+        s3Service = mock(S3Service.class);
+        imageVariantGenerator = mock(ImageVariantGenerator.class);
+        imageBlobRegistry = mock(ImageBlobRegistry.class);
+        likeRepository = mock(LikeRepository.class);
+        commentRepository = mock(CommentRepository.class);
+        imageChangeBroadcaster = mock(ImageChangeBroadcaster.class);
+        hotFeedWindow = mock(HotFeedWindow.class);
+        ImageMetadataCache imageMetadataCache = new ImageMetadataCache(
+                new ImageMetadataCacheProperties(DataSize.ofMegabytes(1), Duration.ofMinutes(1), 10),
+                new SimpleMeterRegistry());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        imageService = new ImageServiceImpl(imageRepository, new ImageMapper(), s3Client, s3StreamingUploader,
+                s3AsyncUploader, s3Service, imageVariantGenerator, imageBlobRegistry, imageMetadataCache,
+                imageChangeBroadcaster, hotFeedWindow, likeRepository, commentRepository, transactionTemplate);
+        when(imageBlobRegistry.reference(any(String.class), any(String.class))).thenAnswer(inv -> inv.getArgument(1));
+        ReflectionTestUtils.setField(imageService, "presignTtl", Duration.ofMinutes(15));
     }
 
     @Test
@@ -74,6 +129,42 @@ class ImageServiceImplTest {
 
         verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(software.amazon.awssdk.core.sync.RequestBody.class));
         verify(imageRepository, times(1)).save(any(ImageEntity.class));
+        verify(imageVariantGenerator, times(1)).generateAsync(eq(generatedId), any(String.class));
+        verify(imageChangeBroadcaster).publishAfterCommit(generatedId, ImageChangeEvent.Type.CREATED);
+    }
+
+    @Test
+    void uploadImage_recordsContentDigest() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", "abc".getBytes());
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(inv -> {
+            RequestBody body = inv.getArgument(1);
+            body.contentStreamProvider().newStream().readAllBytes();
+            return PutObjectResponse.builder().build();
+        });
+        when(imageRepository.save(any(ImageEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        imageService.uploadImage(file, UUID.randomUUID(), null);
+
+        String sha256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+        verify(imageBlobRegistry).reference(eq(sha256), argThat(key -> key.endsWith("-photo.jpg")));
+        verify(imageRepository).save(argThat(image -> sha256.equals(image.getContentSha256())));
+    }
+
+    @Test
+    void uploadImageStream_duplicateContent_reusesStoredObject() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(imageBlobRegistry.reference(any(String.class), any(String.class))).thenReturn("existing-photo.jpg");
+        when(imageRepository.existsByS3KeyAndVariantsReadyTrue("existing-photo.jpg")).thenReturn(true);
+        when(imageRepository.save(any(ImageEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UploadResponseDto resp = imageService.uploadImageStream(
+                new ByteArrayInputStream("abcd".getBytes()), "photo.jpg", "image/jpeg", userId, null);
+
+        assertTrue(resp.getUrl().endsWith("/images/existing-photo.jpg"));
+        verify(imageRepository).save(argThat(image -> image.getS3Key().equals("existing-photo.jpg")
+                && image.isVariantsReady()));
+        verify(s3Service).delete(argThat(key -> key.endsWith("-photo.jpg") && !key.equals("existing-photo.jpg")));
+        verify(imageVariantGenerator, never()).generateAsync(any(), any());
     }
 
     @Test
@@ -88,6 +179,104 @@ class ImageServiceImplTest {
         verify(imageRepository, never()).save(any());
     }
 
+    @Test
+    void uploadImageStream_success() throws Exception {
+        UUID userId = UUID.randomUUID();
+        ByteArrayInputStream content = new ByteArrayInputStream("abcd".getBytes());
+        when(imageRepository.save(any(ImageEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UploadResponseDto resp = imageService.uploadImageStream(content, "photo.jpg", "image/jpeg", userId, "desc");
+
+        assertNotNull(resp);
+        assertTrue(resp.getUrl().endsWith("-photo.jpg"));
+        verify(s3StreamingUploader, times(1)).upload(any(String.class), eq("image/jpeg"), any(InputStream.class));
+        verify(imageRepository, times(1)).save(any(ImageEntity.class));
+    }
+
+    @Test
+    void uploadImageAsync_savesImageAfterTransfer() throws Exception {
+        UUID userId = UUID.randomUUID();
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", "abcd".getBytes());
+        CompletableFuture<String> transfer = new CompletableFuture<>();
+        when(s3AsyncUploader.upload(any(String.class), eq("image/jpeg"), any(Path.class))).thenReturn(transfer);
+        when(imageRepository.save(any(ImageEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        CompletableFuture<UploadResponseDto> result = imageService.uploadImageAsync(file, userId, "desc");
+
+        assertFalse(result.isDone());
+        verify(imageRepository, never()).save(any());
+
+        transfer.complete("digest");
+
+        assertTrue(result.get().getUrl().endsWith("-photo.jpg"));
+        verify(imageRepository, times(1)).save(argThat(image -> "digest".equals(image.getContentSha256())));
+    }
+
+    @Test
+    void uploadImageAsync_saveFails_deletesUploadedObject() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", "abcd".getBytes());
+        when(s3AsyncUploader.upload(any(String.class), any(), any(Path.class)))
+                .thenReturn(CompletableFuture.completedFuture("digest"));
+        when(imageRepository.save(any(ImageEntity.class))).thenThrow(new RuntimeException("DB down"));
+
+        CompletableFuture<UploadResponseDto> result = imageService.uploadImageAsync(file, UUID.randomUUID(), null);
+
+        assertTrue(result.isCompletedExceptionally());
+        verify(s3Service).delete(argThat(key -> key.endsWith("-photo.jpg")));
+        verify(imageChangeBroadcaster, never()).publishAfterCommit(any(), any());
+    }
+
+    @Test
+    void uploadImageAsync_transferFails_doesNotSave() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", "abcd".getBytes());
+        when(s3AsyncUploader.upload(any(String.class), any(), any(Path.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("S3 error")));
+
+        CompletableFuture<UploadResponseDto> result = imageService.uploadImageAsync(file, UUID.randomUUID(), null);
+
+        assertTrue(result.isCompletedExceptionally());
+        verify(imageRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteImage_owner_removesRowAndReleasesBlob() {
+        UUID userId = UUID.randomUUID();
+        UUID imageId = UUID.randomUUID();
+        ImageEntity image = ImageEntity.builder().id(imageId).userId(userId).s3Key("key").build();
+        when(imageRepository.findById(imageId)).thenReturn(Optional.of(image));
+        when(imageRepository.deleteImageById(imageId)).thenReturn(1);
+
+        imageService.deleteImage(imageId, userId);
+
+        verify(likeRepository).deleteByImageId(imageId);
+        verify(commentRepository).deleteByImageId(imageId);
+        verify(imageBlobRegistry).release(image);
+        verify(imageChangeBroadcaster).publishAfterCommit(imageId, ImageChangeEvent.Type.DELETED);
+    }
+
+    @Test
+    void deleteImage_notOwner_throwsForbidden() {
+        UUID imageId = UUID.randomUUID();
+        ImageEntity image = ImageEntity.builder().id(imageId).userId(UUID.randomUUID()).build();
+        when(imageRepository.findById(imageId)).thenReturn(Optional.of(image));
+
+        assertThrows(ForbiddenException.class, () -> imageService.deleteImage(imageId, UUID.randomUUID()));
+        verify(imageRepository, never()).deleteImageById(any());
+        verify(imageBlobRegistry, never()).release(any());
+    }
+
+    @Test
+    void deleteImage_concurrentlyDeleted_throwsNotFound() {
+        UUID userId = UUID.randomUUID();
+        UUID imageId = UUID.randomUUID();
+        when(imageRepository.findById(imageId))
+                .thenReturn(Optional.of(ImageEntity.builder().id(imageId).userId(userId).build()));
+        when(imageRepository.deleteImageById(imageId)).thenReturn(0);
+
+        assertThrows(NotFoundException.class, () -> imageService.deleteImage(imageId, userId));
+        verify(imageBlobRegistry, never()).release(any());
+    }
+
     @Test
     void getImage_success() {
         UUID id = UUID.randomUUID();
@@ -100,6 +289,139 @@ class ImageServiceImplTest {
         assertNotNull(dto);
         assertEquals(id, dto.getId());
         assertEquals("http://example.com/img.png", dto.getUrl());
+        assertNull(dto.getVariantUrls());
+    }
+
+    @Test
+    void getImageAndVersion_shareOneCachedLoad() {
+        UUID id = UUID.randomUUID();
+        Instant version = Instant.parse("2024-05-01T10:15:30Z");
+        ImageEntity entity = ImageEntity.builder().id(id).url("http://example.com/img.png").updatedAt(version).build();
+        when(imageRepository.findById(id)).thenReturn(Optional.of(entity));
+
+        imageService.getImage(id);
+        assertEquals(version, imageService.getImageVersion(id));
+        verify(imageRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void getImage_variantsReady_exposesVariantUrls() {
+        UUID id = UUID.randomUUID();
+        ImageEntity entity = ImageEntity.builder()
+                .id(id).url("http://example.com/key").s3Key("key").variantsReady(true).build();
+        when(imageRepository.findById(id)).thenReturn(Optional.of(entity));
+
+        ImageDto dto = imageService.getImage(id);
+
+        assertEquals(3, dto.getVariantUrls().size());
+        assertTrue(dto.getVariantUrls().get("thumb").endsWith("/images/key-thumb.jpg"));
+    }
+
+    @Test
+    void getImage_pendingUpload_notFound() {
+        UUID id = UUID.randomUUID();
+        ImageEntity entity = ImageEntity.builder().id(id).status(ImageStatus.PENDING).build();
+        when(imageRepository.findById(id)).thenReturn(Optional.of(entity));
+
+        assertThrows(NotFoundException.class, () -> imageService.getImage(id));
+    }
+
+    @Test
+    void createPresignedUpload_savesPendingImage() {
+        UUID userId = UUID.randomUUID();
+        UUID generatedId = UUID.randomUUID();
+        Instant expiresAt = Instant.now().plusSeconds(900);
+        when(imageRepository.save(any(ImageEntity.class))).thenAnswer(inv -> {
+            ImageEntity entity = inv.getArgument(0);
+            entity.setId(generatedId);
+            return entity;
+        });
+        when(s3Service.presignUpload(any(String.class), eq("image/png")))
+                .thenReturn(new S3Service.PresignedUpload("http://s3/presigned", expiresAt));
+
+        PresignedUploadDto dto = imageService.createPresignedUpload(
+                new PresignedUploadRequestDto("photo.png", "image/png", "desc"), userId);
+
+        assertEquals(generatedId, dto.getId());
+        assertEquals("http://s3/presigned", dto.getUploadUrl());
+        assertEquals(expiresAt, dto.getExpiresAt());
+        verify(imageRepository).save(argThat(entity -> entity.getStatus() == ImageStatus.PENDING
+                && entity.getS3Key().endsWith("-photo.png")));
+    }
+
+    @Test
+    void confirmUpload_objectPresent_marksReady() {
+        UUID userId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+        ImageEntity entity = ImageEntity.builder()
+                .id(id).userId(userId).s3Key("key").status(ImageStatus.PENDING).url("http://s3/key")
+                .uploadedAt(Instant.now()).build();
+        when(imageRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(s3Service.exists("key")).thenReturn(true);
+        when(imageRepository.markReady(eq(id), any(Instant.class), any(Instant.class))).thenReturn(1);
+
+        UploadResponseDto resp = imageService.confirmUpload(id, userId);
+
+        assertEquals(id, resp.getId());
+        verify(imageRepository).markReady(eq(id), any(Instant.class), any(Instant.class));
+        verify(imageChangeBroadcaster).publishAfterCommit(id, ImageChangeEvent.Type.CREATED);
+        verify(imageVariantGenerator).generateAsync(id, "key");
+    }
+
+    @Test
+    void confirmUpload_concurrentlyConfirmed_doesNotPublishAgain() {
+        UUID userId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+        ImageEntity entity = ImageEntity.builder()
+                .id(id).userId(userId).s3Key("key").status(ImageStatus.PENDING).url("http://s3/key")
+                .uploadedAt(Instant.now()).build();
+        when(imageRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(s3Service.exists("key")).thenReturn(true);
+        when(imageRepository.markReady(eq(id), any(Instant.class), any(Instant.class))).thenReturn(0);
+
+        UploadResponseDto resp = imageService.confirmUpload(id, userId);
+
+        assertEquals(id, resp.getId());
+        verify(imageChangeBroadcaster, never()).publishAfterCommit(any(), any());
+        verify(imageVariantGenerator, never()).generateAsync(any(), any());
+    }
+
+    @Test
+    void confirmUpload_objectMissing_conflict() {
+        UUID userId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+        ImageEntity entity = ImageEntity.builder()
+                .id(id).userId(userId).s3Key("key").status(ImageStatus.PENDING).uploadedAt(Instant.now()).build();
+        when(imageRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(s3Service.exists("key")).thenReturn(false);
+
+        assertThrows(ConflictException.class, () -> imageService.confirmUpload(id, userId));
+        verify(imageRepository, never()).markReady(any(), any(), any());
+    }
+
+    @Test
+    void confirmUpload_pastPresignTtl_conflict() {
+        UUID userId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+        ImageEntity entity = ImageEntity.builder()
+                .id(id).userId(userId).s3Key("key").status(ImageStatus.PENDING)
+                .uploadedAt(Instant.now().minus(Duration.ofMinutes(20))).build();
+        when(imageRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(s3Service.exists("key")).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> imageService.confirmUpload(id, userId));
+        verify(imageRepository, never()).markReady(any(), any(), any());
+        verify(imageChangeBroadcaster, never()).publishAfterCommit(any(), any());
+    }
+
+    @Test
+    void confirmUpload_otherUser_forbidden() {
+        UUID id = UUID.randomUUID();
+        ImageEntity entity = ImageEntity.builder()
+                .id(id).userId(UUID.randomUUID()).s3Key("key").status(ImageStatus.PENDING).build();
+        when(imageRepository.findById(id)).thenReturn(Optional.of(entity));
+
+        assertThrows(ForbiddenException.class, () -> imageService.confirmUpload(id, UUID.randomUUID()));
     }
 
     @Test
@@ -152,6 +474,31 @@ class ImageServiceImplTest {
         assertEquals(1, page.getTotalElements());
     }
 
+    @Test
+    void getAllImages_coveredByHotFeedWindow_skipsDatabase() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        ImageEntity entity = image(Instant.parse("2024-01-01T00:00:00Z"));
+        when(hotFeedWindow.page(pageable)).thenReturn(Optional.of(new PageImpl<>(List.of(entity), pageable, 1)));
+
+        Page<ImageDto> page = imageService.getAllImages(pageable);
+
+        assertEquals(entity.getId(), page.getContent().get(0).getId());
+        verify(imageRepository, never()).findAllByOrderByUploadedAtDesc(any(Pageable.class));
+    }
+
+    @Test
+    void getAllImagesByCursor_coveredByHotFeedWindow_skipsDatabase() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2024-01-02T00:00:00Z"), UUID.randomUUID());
+        ImageEntity older = image(Instant.parse("2024-01-01T00:00:00Z"));
+        when(hotFeedWindow.newest(cursor, 21)).thenReturn(Optional.of(List.of(older)));
+
+        CursorPageResponseDto<ImageDto> page = imageService.getAllImages(cursor.encode(), 20);
+
+        assertEquals(1, page.getContent().size());
+        assertTrue(page.isLast());
+        verifyNoInteractions(imageRepository);
+    }
+
     @Test
     void getAllImages_empty() {
         when(imageRepository.findAllByOrderByUploadedAtDesc(any(PageRequest.class)))
@@ -161,4 +508,48 @@ class ImageServiceImplTest {
 
         assertTrue(page.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllImagesByCursor_returnsNextCursorWhenMoreRows() {
+        List<ImageEntity> rows = List.of(image(Instant.parse("2024-01-03T00:00:00Z")),
+                image(Instant.parse("2024-01-02T00:00:00Z")),
+                image(Instant.parse("2024-01-01T00:00:00Z")));
+        when(imageRepository.findAllByOrderByUploadedAtDescIdDesc(Limit.of(3))).thenReturn(rows);
+
+        CursorPageResponseDto<ImageDto> page = imageService.getAllImages("", 2);
+
+        assertEquals(2, page.getContent().size());
+        assertFalse(page.isLast());
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(rows.get(1).getUploadedAt(), next.timestamp());
+        assertEquals(rows.get(1).getId(), next.id());
+    }
+
+    @Test
+    void getUserImagesByCursor_seeksPastCursor() {
+        UUID userId = UUID.randomUUID();
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2024-01-02T00:00:00Z"), UUID.randomUUID());
+        ImageEntity older = image(Instant.parse("2024-01-01T00:00:00Z"));
+        when(imageRepository.findUserPageAfter(userId, cursor.timestamp(), cursor.id(), Limit.of(21)))
+                .thenReturn(List.of(older));
+
+        CursorPageResponseDto<ImageDto> page = imageService.getUserImages(userId, cursor.encode(), 20);
+
+        assertEquals(1, page.getContent().size());
+        assertTrue(page.isLast());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getAllImagesByCursor_invalidCursor() {
+        assertThrows(BadRequestException.class, () -> imageService.getAllImages("not-a-cursor", 20));
+    }
+
+    private static ImageEntity image(Instant uploadedAt) {
+        ImageEntity entity = new ImageEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setUrl("http://example.com/" + entity.getId());
+        entity.setUploadedAt(uploadedAt);
+        return entity;
+    }
+}
@@ -0,0 +1,107 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.ImageVariantProperties;
+import com.innowise.image.config.S3Properties;
+import com.innowise.image.dto.ImageChangeEvent;
+import com.innowise.image.repository.ImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageVariantGeneratorTest {
+
+    private S3Client s3Client;
+    private ImageRepository imageRepository;
+    private ImageChangeBroadcaster imageChangeBroadcaster;
+    private ImageVariantGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        s3Client = mock(S3Client.class);
+        imageRepository = mock(ImageRepository.class);
+        S3Properties s3Properties = new S3Properties("http://localhost", "us-east-1", "bucket", "key", "secret", null);
+        imageChangeBroadcaster = mock(ImageChangeBroadcaster.class);
+        generator = new ImageVariantGenerator(s3Client, s3Properties, imageRepository, imageChangeBroadcaster,
+                new ImageVariantProperties(1, 10, 10_000_000, 0.8f), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        generator.shutdown();
+    }
+
+    @Test
+    void scale_keepsAspectRatioWithinMaxEdge() {
+        BufferedImage scaled = ImageVariantGenerator.scale(new BufferedImage(1000, 500, BufferedImage.TYPE_INT_ARGB), 200);
+
+        assertEquals(200, scaled.getWidth());
+        assertEquals(100, scaled.getHeight());
+    }
+
+    @Test
+    void scale_neverUpscales() {
+        BufferedImage scaled = ImageVariantGenerator.scale(new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB), 800);
+
+        assertEquals(120, scaled.getWidth());
+        assertEquals(80, scaled.getHeight());
+    }
+
+    @Test
+    void generate_storesAllVariantsAndMarksImage() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(objectOf(png(400, 300)));
+
+        generator.generate(imageId, "original.png");
+
+        verify(s3Client, times(3)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client).putObject(argThat((PutObjectRequest req) -> req.key().equals("original.png-thumb.jpg")),
+                any(RequestBody.class));
+        verify(imageRepository).markVariantsReady(imageId);
+        verify(imageChangeBroadcaster).publishAfterCommit(imageId, ImageChangeEvent.Type.UPDATED);
+    }
+
+    @Test
+    void generate_undecodableContent_skipsVariants() throws Exception {
+        UUID imageId = UUID.randomUUID();
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(objectOf("not an image".getBytes()));
+
+        generator.generate(imageId, "notes.txt");
+
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(imageRepository, never()).markVariantsReady(any());
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static ResponseInputStream<GetObjectResponse> objectOf(byte[] bytes) {
+        return new ResponseInputStream<>(GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -0,0 +1,72 @@
+package com.innowise.image.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KafkaProducerServiceImplTest {
+
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaProducerServiceImpl producer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        producer = new KafkaProducerServiceImpl(kafkaTemplate, meterRegistry, 1);
+    }
+
+    @Test
+    void send_recordsLatencyAndOutcomePerTopic() throws Exception {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        producer.send("likes", "k", "event").get();
+        assertThrows(ExecutionException.class, () -> producer.send("likes", "k", "event").get());
+
+        assertEquals(1, meterRegistry.get("kafka.producer.send").tags("topic", "likes", "result", "success").timer().count());
+        assertEquals(1, meterRegistry.get("kafka.producer.send").tags("topic", "likes", "result", "failure").timer().count());
+        assertEquals(1.0, meterRegistry.get("kafka.producer.events").tags("topic", "likes", "result", "success").counter().count());
+        assertEquals(1.0, meterRegistry.get("kafka.producer.events").tags("topic", "likes", "result", "failure").counter().count());
+    }
+
+    @Test
+    void send_beyondInFlightBound_isRejectedUntilAcknowledged() throws Exception {
+        CompletableFuture<SendResult<String, Object>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(pending);
+
+        CompletableFuture<SendResult<String, Object>> first = producer.send("likes", "k", "one");
+        CompletableFuture<SendResult<String, Object>> second = producer.send("likes", "k", "two");
+
+        assertTrue(second.isCompletedExceptionally());
+        ExecutionException rejected = assertThrows(ExecutionException.class, second::get);
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+        assertEquals(1.0, meterRegistry.get("kafka.producer.in.flight").gauge().value());
+        assertEquals(1.0, meterRegistry.get("kafka.producer.events").tags("result", "rejected").counter().count());
+
+        pending.complete(null);
+        first.get();
+        assertEquals(0.0, meterRegistry.get("kafka.producer.in.flight").gauge().value());
+
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        producer.send("likes", "k", "three").get();
+    }
+}
@@ -0,0 +1,78 @@
+package com.innowise.image.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LikeCountAggregatorTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private LikeCountAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        aggregator = new LikeCountAggregator(jdbcTemplate, transactionTemplate, 1_000);
+    }
+
+    @Test
+    void flush_writesNetDeltaPerImageInOneBatch() {
+        UUID hot = UUID.randomUUID();
+        UUID cold = UUID.randomUUID();
+        aggregator.record(hot, 1);
+        aggregator.record(hot, 1);
+        aggregator.record(hot, -1);
+        aggregator.record(cold, 1);
+
+        aggregator.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), argThat((List<Object[]> batch) ->
+                batch.size() == 2 && batch.stream().allMatch(args -> (long) args[0] == 1L)));
+        assertEquals(0, aggregator.pendingDelta(hot));
+        assertEquals(0, aggregator.pendingDelta(cold));
+    }
+
+    @Test
+    void pendingDelta_reflectsUnflushedToggles() {
+        UUID imageId = UUID.randomUUID();
+        aggregator.record(imageId, 1);
+        aggregator.record(imageId, 1);
+
+        assertEquals(2, aggregator.pendingDelta(imageId));
+    }
+
+    @Test
+    void flush_failure_keepsDeltasPending() {
+        UUID imageId = UUID.randomUUID();
+        aggregator.record(imageId, 1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        aggregator.flush();
+
+        assertEquals(1, aggregator.pendingDelta(imageId));
+    }
+
+    @Test
+    void flush_nothingPending_skipsDatabase() {
+        aggregator.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
@@ -1,18 +1,28 @@
 package com.innowise.image.service.impl;
 
+import com.innowise.image.dto.ImageLikesDto;
 import com.innowise.image.entity.LikeEntity;
+import com.innowise.image.repository.ImageCount;
+import com.innowise.image.repository.ImageRepository;
 import com.innowise.image.repository.LikeRepository;
-import com.innowise.image.service.KafkaProducerService;
+import com.innowise.image.service.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,7 +33,13 @@ class LikeServiceImplTest {
     private LikeRepository likeRepository;
 
     @Mock
-    private KafkaProducerService kafkaProducerService;
+    private ImageRepository imageRepository;
+
+    @Mock
+    private LikeCountAggregator likeCountAggregator;
+
+    @Mock
+    private OutboxService outboxService;
 
     @InjectMocks
     private LikeServiceImpl likeService;
@@ -41,17 +57,75 @@ class LikeServiceImplTest {
         when(likeRepository.findByImageIdAndUserId(imageId, userId)).thenReturn(Optional.empty());
         likeService.toggleLike(imageId, userId);
         verify(likeRepository, times(1)).save(any());
+        verify(likeCountAggregator, times(1)).recordAfterCommit(imageId, 1);
+        verify(outboxService, times(1)).enqueueLikeEvent(userId, imageId, true);
 
         LikeEntity like = new LikeEntity();
         when(likeRepository.findByImageIdAndUserId(imageId, userId)).thenReturn(Optional.of(like));
         likeService.toggleLike(imageId, userId);
         verify(likeRepository, times(1)).delete(like);
+        verify(likeCountAggregator, times(1)).recordAfterCommit(imageId, -1);
+        verify(outboxService, times(1)).enqueueLikeEvent(userId, imageId, false);
+    }
+
+    @Test
+    void countLikes_readsDenormalizedCounter() {
+        UUID imageId = UUID.randomUUID();
+        when(imageRepository.findLikesCountById(imageId)).thenReturn(Optional.of(7));
+
+        assertEquals(7, likeService.countLikes(imageId));
+        verify(likeRepository, never()).countByImageId(any());
+    }
+
+    @Test
+    void countLikes_includesPendingDelta() {
+        UUID imageId = UUID.randomUUID();
+        when(imageRepository.findLikesCountById(imageId)).thenReturn(Optional.of(7));
+        when(likeCountAggregator.pendingDelta(imageId)).thenReturn(3L);
+
+        assertEquals(10, likeService.countLikes(imageId));
     }
 
     @Test
-    void countLikes_callsRepository() {
+    void countLikes_unknownImage_returnsZero() {
         UUID imageId = UUID.randomUUID();
-        likeService.countLikes(imageId);
-        verify(likeRepository).countByImageId(imageId);
+        when(imageRepository.findLikesCountById(imageId)).thenReturn(Optional.empty());
+
+        assertEquals(0, likeService.countLikes(imageId));
+    }
+
+    @Test
+    void getLikes_countsAndLikedSetInTwoQueries() {
+        UUID userId = UUID.randomUUID();
+        UUID liked = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        List<UUID> ids = List.of(liked, other, UUID.randomUUID());
+        when(imageRepository.findLikesCounts(ids)).thenReturn(List.of(count(liked, 4), count(other, 0)));
+        when(likeRepository.findLikedImageIds(userId, ids)).thenReturn(Set.of(liked));
+        when(likeCountAggregator.pendingDelta(liked)).thenReturn(1L);
+        when(likeCountAggregator.pendingDelta(other)).thenReturn(-1L);
+
+        Map<UUID, ImageLikesDto> likes = likeService.getLikes(ids, userId);
+
+        assertEquals(2, likes.size());
+        assertEquals(5, likes.get(liked).getLikesCount());
+        assertTrue(likes.get(liked).isLikedByMe());
+        assertEquals(0, likes.get(other).getLikesCount());
+        assertFalse(likes.get(other).isLikedByMe());
+        verify(likeRepository, never()).findByImageIdAndUserId(any(), any());
+    }
+
+    private static ImageCount count(UUID imageId, long total) {
+        return new ImageCount() {
+            @Override
+            public UUID getImageId() {
+                return imageId;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package com.innowise.image.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.image.config.KafkaTopics;
+import com.innowise.image.entity.OutboxEventType;
+import com.innowise.image.job.ClusterJobLock;
+import com.innowise.image.service.KafkaProducerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the relay's batch selection against PostgreSQL to pin down the coalescing window.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxRelaySelectionTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JdbcTemplate jdbcTemplate;
+    private KafkaProducerService kafkaProducerService;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS gallery CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA gallery");
+        jdbcTemplate.execute(changeset("007-outbox-events.sql"));
+        jdbcTemplate.execute(changeset("008-outbox-coalesce-key.sql"));
+
+        kafkaProducerService = mock(KafkaProducerService.class);
+        when(kafkaProducerService.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        relay = new OutboxRelay(jdbcTemplate, mock(ClusterJobLock.class),
+                kafkaProducerService, objectMapper, 10, Duration.ofSeconds(1), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void toggleSpreadOverTheWindow_cancelsOutOnceTheOldestRowIsDue() {
+        UUID userId = UUID.randomUUID();
+        UUID imageId = UUID.randomUUID();
+        insertLike(userId, imageId, true, Duration.ofMillis(1500));
+        insertLike(userId, imageId, false, Duration.ofMillis(500));
+
+        assertEquals(2, relay.relayBatch());
+
+        verify(kafkaProducerService, never()).send(anyString(), anyString(), any());
+        assertEquals(List.of(), remainingIds());
+    }
+
+    @Test
+    void keyWhoseOldestRowIsInsideTheWindow_isHeldBack() {
+        UUID userId = UUID.randomUUID();
+        long held = insertLike(userId, UUID.randomUUID(), true, Duration.ofMillis(300));
+        insert(KafkaTopics.COMMENT_EVENTS, userId, OutboxEventType.COMMENT,
+                OutboxEvents.commentPayload(objectMapper, userId, UUID.randomUUID(), UUID.randomUUID(), "hi", true),
+                null, Duration.ZERO);
+
+        assertEquals(1, relay.relayBatch());
+
+        verify(kafkaProducerService).send(eq(KafkaTopics.COMMENT_EVENTS), eq(userId.toString()), any());
+        verify(kafkaProducerService, never()).send(eq(KafkaTopics.LIKE_EVENTS), anyString(), any());
+        assertEquals(List.of(held), remainingIds());
+    }
+
+    private long insertLike(UUID userId, UUID imageId, boolean isAdded, Duration age) {
+        return insert(KafkaTopics.LIKE_EVENTS, userId, OutboxEventType.LIKE,
+                OutboxEvents.likePayload(objectMapper, userId, imageId, isAdded),
+                OutboxEvents.likeCoalesceKey(userId, imageId), age);
+    }
+
+    private long insert(String topic, UUID key, OutboxEventType type, String payload, String coalesceKey,
+                        Duration age) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO gallery.outbox_events (topic, event_key, event_type, payload, coalesce_key, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?) RETURNING id",
+                Long.class, topic, key.toString(), type.name(), payload, coalesceKey,
+                Timestamp.from(Instant.now().minus(age)));
+    }
+
+    private List<Long> remainingIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM gallery.outbox_events ORDER BY id", Long.class);
+    }
+
+    private static String changeset(String file) throws Exception {
+        return new ClassPathResource("db/image-service/changes/" + file).getContentAsString(StandardCharsets.UTF_8);
+    }
+}
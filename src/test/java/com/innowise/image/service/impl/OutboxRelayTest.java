@@ -0,0 +1,219 @@
+package com.innowise.image.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.common.dto.event.CommentEventDto;
+import com.innowise.common.dto.event.LikeEventDto;
+import com.innowise.image.config.KafkaTopics;
+import com.innowise.image.entity.OutboxEventType;
+import com.innowise.image.job.ClusterJobLock;
+import com.innowise.image.service.KafkaProducerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JdbcTemplate jdbcTemplate;
+    private KafkaProducerService kafkaProducerService;
+    private ClusterJobLock clusterJobLock;
+    private OutboxRelay relay;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        kafkaProducerService = mock(KafkaProducerService.class);
+        clusterJobLock = mock(ClusterJobLock.class);
+        relay = new OutboxRelay(jdbcTemplate, clusterJobLock,
+                kafkaProducerService, objectMapper, 10, Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Timestamp.class), anyInt())).thenAnswer(inv -> {
+            RowMapper<Object> mapper = inv.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (Object[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("id")).thenReturn((Long) row[0]);
+                when(rs.getString("topic")).thenReturn((String) row[1]);
+                when(rs.getString("event_key")).thenReturn((String) row[2]);
+                when(rs.getString("event_type")).thenReturn((String) row[3]);
+                when(rs.getString("payload")).thenReturn((String) row[4]);
+                when(rs.getString("coalesce_key")).thenReturn((String) row[5]);
+                mapped.add(mapper.mapRow(rs, mapped.size()));
+            }
+            return mapped;
+        });
+    }
+
+    @Test
+    void relayBatch_publishesEventsAndDeletesAcknowledgedRows() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID imageId = UUID.randomUUID();
+        UUID commentId = UUID.randomUUID();
+        rows.add(row(1L, KafkaTopics.LIKE_EVENTS, userId, OutboxEventType.LIKE,
+                OutboxEvents.likePayload(objectMapper, userId, imageId, true)));
+        rows.add(row(2L, KafkaTopics.COMMENT_EVENTS, userId, OutboxEventType.COMMENT,
+                OutboxEvents.commentPayload(objectMapper, userId, imageId, commentId, "hi", true)));
+        when(kafkaProducerService.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(2, relay.relayBatch());
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaProducerService).send(eq(KafkaTopics.LIKE_EVENTS), eq(userId.toString()), events.capture());
+        verify(kafkaProducerService).send(eq(KafkaTopics.COMMENT_EVENTS), eq(userId.toString()), events.capture());
+        LikeEventDto like = (LikeEventDto) events.getAllValues().get(0);
+        assertEquals(imageId, like.getImageId());
+        assertTrue(like.isAdded());
+        CommentEventDto comment = (CommentEventDto) events.getAllValues().get(1);
+        assertEquals(commentId, comment.getCommentId());
+        assertEquals("hi", comment.getContent());
+        assertArrayEquals(new Object[]{1L, 2L}, deletedIds());
+    }
+
+    @Test
+    void relayBatch_failedSend_keepsLaterRowsOfSameKeyForRetry() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        rows.add(row(1L, KafkaTopics.COMMENT_EVENTS, userId, OutboxEventType.COMMENT,
+                OutboxEvents.commentPayload(objectMapper, userId, UUID.randomUUID(), UUID.randomUUID(), "hi", true)));
+        rows.add(row(2L, KafkaTopics.COMMENT_EVENTS, userId, OutboxEventType.COMMENT,
+                OutboxEvents.commentPayload(objectMapper, userId, UUID.randomUUID(), UUID.randomUUID(), null, false)));
+        rows.add(row(3L, KafkaTopics.LIKE_EVENTS, otherUserId, OutboxEventType.LIKE,
+                OutboxEvents.likePayload(objectMapper, otherUserId, UUID.randomUUID(), true)));
+        when(kafkaProducerService.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, relay.relayBatch());
+        assertArrayEquals(new Object[]{3L}, deletedIds());
+    }
+
+    @Test
+    void relayBatch_sendRejected_skipsLaterRowsOfSameKey() throws Exception {
+        UUID userId = UUID.randomUUID();
+        rows.add(row(1L, KafkaTopics.LIKE_EVENTS, userId, OutboxEventType.LIKE,
+                OutboxEvents.likePayload(objectMapper, userId, UUID.randomUUID(), true)));
+        rows.add(row(2L, KafkaTopics.LIKE_EVENTS, userId, OutboxEventType.LIKE,
+                OutboxEvents.likePayload(objectMapper, userId, UUID.randomUUID(), true)));
+        when(kafkaProducerService.send(anyString(), anyString(), any()))
+                .thenThrow(new IllegalStateException("buffer exhausted"));
+
+        assertEquals(0, relay.relayBatch());
+        verify(kafkaProducerService, times(1)).send(anyString(), anyString(), any());
+        verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+    }
+
+    @Test
+    void relayBatch_oddToggleRun_publishesOnlyLastEvent() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID imageId = UUID.randomUUID();
+        rows.add(like(1L, userId, imageId, true));
+        rows.add(like(2L, userId, imageId, false));
+        rows.add(like(3L, userId, imageId, true));
+        when(kafkaProducerService.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(3, relay.relayBatch());
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaProducerService, times(1)).send(eq(KafkaTopics.LIKE_EVENTS), eq(userId.toString()), events.capture());
+        assertTrue(((LikeEventDto) events.getValue()).isAdded());
+        assertArrayEquals(new Object[]{1L, 2L, 3L}, deletedIds());
+    }
+
+    @Test
+    void relayBatch_evenToggleRun_dropsWithoutPublishing() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID imageId = UUID.randomUUID();
+        UUID otherImageId = UUID.randomUUID();
+        rows.add(like(1L, userId, imageId, true));
+        rows.add(like(2L, userId, otherImageId, true));
+        rows.add(like(3L, userId, imageId, false));
+        when(kafkaProducerService.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(3, relay.relayBatch());
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaProducerService, times(1)).send(anyString(), anyString(), events.capture());
+        assertEquals(otherImageId, ((LikeEventDto) events.getValue()).getImageId());
+        assertArrayEquals(new Object[]{1L, 3L, 2L}, deletedIds());
+    }
+
+    @Test
+    void relayBatch_unacknowledgedRun_keepsAllItsRows() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID imageId = UUID.randomUUID();
+        rows.add(like(1L, userId, imageId, true));
+        rows.add(like(2L, userId, imageId, false));
+        rows.add(like(3L, userId, imageId, true));
+        when(kafkaProducerService.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertEquals(0, relay.relayBatch());
+        verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+    }
+
+    @Test
+    void relay_lockHeldByAnotherInstance_publishesNothing() {
+        when(clusterJobLock.runExclusively(anyString(), any())).thenReturn(false);
+        rows.add(like(1L, UUID.randomUUID(), UUID.randomUUID(), true));
+
+        relay.relay();
+
+        verify(kafkaProducerService, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void relayBatch_emptyOutbox_doesNothing() {
+        assertEquals(0, relay.relayBatch());
+        verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+    }
+
+    private Object[] deletedIds() throws Exception {
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).update(creator.capture());
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        ArgumentCaptor<Object[]> ids = ArgumentCaptor.forClass(Object[].class);
+        when(connection.createArrayOf(eq("bigint"), ids.capture())).thenReturn(mock(Array.class));
+        creator.getValue().createPreparedStatement(connection);
+        return ids.getValue();
+    }
+
+    private static Object[] row(long id, String topic, UUID key, OutboxEventType type, String payload) {
+        return new Object[]{id, topic, key.toString(), type.name(), payload, null};
+    }
+
+    private Object[] like(long id, UUID userId, UUID imageId, boolean isAdded) {
+        return new Object[]{id, KafkaTopics.LIKE_EVENTS, userId.toString(), OutboxEventType.LIKE.name(),
+                OutboxEvents.likePayload(objectMapper, userId, imageId, isAdded),
+                OutboxEvents.likeCoalesceKey(userId, imageId)};
+    }
+}
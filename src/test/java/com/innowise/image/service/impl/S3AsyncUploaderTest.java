@@ -0,0 +1,140 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.S3Properties;
+import com.innowise.image.config.S3UploadProperties;
+import com.innowise.image.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class S3AsyncUploaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private S3AsyncClient s3AsyncClient;
+    private S3AsyncUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        s3AsyncClient = mock(S3AsyncClient.class);
+        S3Properties s3Properties = new S3Properties("http://localhost", "us-east-1", "bucket", "key", "secret", null);
+        uploader = new S3AsyncUploader(s3AsyncClient, s3Properties,
+                new S3UploadProperties(DataSize.ofMegabytes(8), 2, 2, Duration.ofMinutes(15), 1, DataSize.ofMegabytes(50)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploader.shutdown();
+    }
+
+    @Test
+    void upload_completesWithDigestAndDeletesStagedFile() throws Exception {
+        Path staged = Files.writeString(tempDir.resolve("a"), "data");
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenAnswer(inv -> read(inv.getArgument(1))
+                        .thenApply(ignored -> PutObjectResponse.builder().build()));
+
+        String sha256 = uploader.upload("key", "image/png", staged).get(5, TimeUnit.SECONDS);
+
+        assertEquals("3a6eb0790f39ac87c94f3856b2dd2c5d110e6811602261a9a923d3bb23adc8b7", sha256);
+        assertFalse(Files.exists(staged));
+    }
+
+    @Test
+    void upload_retriedTransfer_hashesContentOnce() throws Exception {
+        Path staged = Files.writeString(tempDir.resolve("a"), "data");
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenAnswer(inv -> {
+                    AsyncRequestBody body = inv.getArgument(1);
+                    return read(body).thenCompose(ignored -> read(body))
+                            .thenApply(ignored -> PutObjectResponse.builder().build());
+                });
+
+        String sha256 = uploader.upload("key", "image/png", staged).get(5, TimeUnit.SECONDS);
+
+        assertEquals("3a6eb0790f39ac87c94f3856b2dd2c5d110e6811602261a9a923d3bb23adc8b7", sha256);
+    }
+
+    @Test
+    void upload_beyondConcurrencyLimit_isRejectedUntilPermitReleased() throws Exception {
+        CompletableFuture<PutObjectResponse> inFlight = new CompletableFuture<>();
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class))).thenReturn(inFlight);
+
+        CompletableFuture<String> first = uploader.upload("a", "image/png", Files.writeString(tempDir.resolve("a"), "a"));
+        Path rejected = Files.writeString(tempDir.resolve("b"), "b");
+        assertThrows(ServiceUnavailableException.class, () -> uploader.upload("b", "image/png", rejected));
+        assertFalse(Files.exists(rejected));
+
+        inFlight.complete(PutObjectResponse.builder().build());
+        first.get(5, TimeUnit.SECONDS);
+
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+        uploader.upload("c", "image/png", Files.writeString(tempDir.resolve("c"), "c")).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void upload_failure_propagatesCause() throws Exception {
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+        CompletableFuture<String> result = uploader.upload("a", "image/png", Files.writeString(tempDir.resolve("a"), "a"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    /**
+     * Reads the body the way the SDK does, completing once all of it was consumed.
+     */
+    private static CompletableFuture<Void> read(AsyncRequestBody body) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        body.subscribe(new Subscriber<>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer buffer) {
+                buffer.position(buffer.limit());
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                done.completeExceptionally(error);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+}
@@ -0,0 +1,99 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.config.S3Properties;
+import com.innowise.image.config.S3UploadProperties;
+import com.innowise.image.exception.PayloadTooLargeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class S3StreamingUploaderTest {
+
+    private S3Client s3Client;
+    private S3StreamingUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        s3Client = mock(S3Client.class);
+        S3Properties properties = new S3Properties("http://localhost", "us-east-1", "bucket", "key", "secret", null);
+        uploader = new S3StreamingUploader(s3Client, properties,
+                new S3UploadProperties(DataSize.ofBytes(4), 2, 2, Duration.ofMinutes(15), 1, DataSize.ofBytes(10)));
+
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploader.shutdown();
+    }
+
+    @Test
+    void upload_smallObject_usesSinglePut() throws Exception {
+        uploader.upload("key", "image/png", new ByteArrayInputStream("abc".getBytes()));
+
+        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void upload_largeObject_usesMultipartUpload() throws Exception {
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        uploader.upload("key", "image/png", new ByteArrayInputStream("abcdefghij".getBytes()));
+
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client, times(1)).completeMultipartUpload(argThat((CompleteMultipartUploadRequest req) ->
+                req.multipartUpload().parts().size() == 3
+                        && req.multipartUpload().parts().get(2).partNumber() == 3));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void upload_partFails_abortsMultipartUpload() {
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(S3Exception.builder().message("boom").build());
+
+        assertThrows(S3Exception.class,
+                () -> uploader.upload("key", "image/png", new ByteArrayInputStream("abcdefghij".getBytes())));
+
+        verify(s3Client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void upload_exceedingMaxSize_abortsMultipartUpload() {
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        assertThrows(PayloadTooLargeException.class,
+                () -> uploader.upload("key", "image/png", new ByteArrayInputStream("abcdefghijk".getBytes())));
+
+        verify(s3Client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+}
@@ -0,0 +1,90 @@
+package com.innowise.image.service.impl;
+
+import com.innowise.image.client.AuthServiceClient;
+import com.innowise.image.config.UsernameCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UsernameResolverImplTest {
+
+    private AuthServiceClient authServiceClient;
+    private UsernameResolverImpl resolver;
+
+    @AfterEach
+    void tearDown() {
+        resolver.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        authServiceClient = mock(AuthServiceClient.class);
+        resolver = new UsernameResolverImpl(authServiceClient,
+                new UsernameCacheProperties(100, Duration.ofMinutes(5), Duration.ofMinutes(1), 2), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void resolveAll_dedupesIdsIntoSingleBatchCall() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        when(authServiceClient.getUsernamesByIds(any())).thenReturn(Map.of(alice, "alice", bob, "bob"));
+
+        Map<UUID, String> names = resolver.resolveAll(List.of(alice, bob, alice, bob, alice));
+
+        assertEquals("alice", names.get(alice));
+        assertEquals("bob", names.get(bob));
+        verify(authServiceClient, times(1)).getUsernamesByIds(Set.of(alice, bob));
+        verify(authServiceClient, never()).getUsernameById(any());
+    }
+
+    @Test
+    void resolve_servesRepeatedLookupsFromCache() {
+        UUID userId = UUID.randomUUID();
+        when(authServiceClient.getUsernamesByIds(any())).thenReturn(Map.of(userId, "alice"));
+
+        resolver.resolveAll(List.of(userId));
+        String name = resolver.resolve(userId);
+
+        assertEquals("alice", name);
+        verify(authServiceClient, never()).getUsernameById(any());
+    }
+
+    @Test
+    void resolveAll_unknownId_isCachedAsAbsent() {
+        UUID known = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        when(authServiceClient.getUsernamesByIds(any())).thenReturn(Map.of(known, "alice"));
+
+        Map<UUID, String> first = resolver.resolveAll(List.of(known, unknown));
+        Map<UUID, String> second = resolver.resolveAll(List.of(known, unknown));
+
+        assertEquals(Map.of(known, "alice"), first);
+        assertEquals(first, second);
+        assertNull(resolver.resolve(unknown));
+        verify(authServiceClient, times(1)).getUsernamesByIds(any());
+        verify(authServiceClient, never()).getUsernameById(any());
+    }
+
+    @Test
+    void resolveAll_emptyInput_skipsRemoteCall() {
+        assertTrue(resolver.resolveAll(List.of()).isEmpty());
+        verify(authServiceClient, never()).getUsernamesByIds(any());
+    }
+}